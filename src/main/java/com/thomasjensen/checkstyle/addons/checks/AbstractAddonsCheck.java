@@ -15,14 +15,13 @@ package com.thomasjensen.checkstyle.addons.checks;
  * program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import java.util.ArrayList;
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -56,19 +55,33 @@ public abstract class AbstractAddonsCheck
     /** Map from binary class names to ASTs */
     private final Map<BinaryName, DetailAST> iClassDeclarationPositions = new HashMap<>();
 
-    /** CLASS_DEF/IDENTs as encountered */
+    /** Encountered binary class names in the current Java file; the top element is the innermost type */
     @SuppressFBWarnings(value = "CNC_COLLECTION_NAMING_CONFUSION", justification = "It's really a stack.")
-    private final Deque<String> iClassDefStack = new LinkedList<>();
-
-    /** Encountered binary class names in the current Java file */
-    @SuppressFBWarnings(value = "CNC_COLLECTION_NAMING_CONFUSION", justification = "It's really a stack.")
-    private final Deque<BinaryName> iBinaryNameStack = new LinkedList<>();
+    private final Deque<BinaryName> iBinaryNameStack = new ArrayDeque<>();
 
     /** Package that the currently checked class resides in */
     private String iMyPackage = null;
 
     private final CheckstyleApiFixer apiFixer;
 
+    /** canonical form of the currently analyzed file, determined at most once per tree */
+    private File iCurrentFile = null;
+
+    /** flag indicating that {@link #iCurrentFile} was determined for the current tree */
+    private boolean iCurrentFileKnown = false;
+
+    /** the base directory for which {@link #iCurrentRelativePath} was determined */
+    private File iRelativePathBase = null;
+
+    /** path of the current file relative to {@link #iRelativePathBase}, or <code>null</code> if not below it */
+    private String iCurrentRelativePath = null;
+
+    /** the required tokens, sorted; determined at most once per configuration */
+    private int[] iRequiredTokens = null;
+
+    /** flags indexed by token type indicating the tokens returned by {@link #getRelevantTokens()} */
+    private boolean[] iRelevantTokenFlags = null;
+
 
 
     protected AbstractAddonsCheck()
@@ -95,8 +108,22 @@ public abstract class AbstractAddonsCheck
 
 
 
+    /**
+     * Prepares the token dispatch of this check, so that {@link #getRelevantTokens()} is not consulted for every
+     * visited token. Subclasses which override this method must call <code>super.init()</code>.
+     */
     @Override
-    public final int[] getRequiredTokens()
+    public void init()
+    {
+        super.init();
+        iRequiredTokens = buildRequiredTokens();
+        iRelevantTokenFlags = buildRelevantTokenFlags();
+    }
+
+
+
+    @Nonnull
+    private int[] buildRequiredTokens()
     {
         final Set<Integer> tokens = new TreeSet<>();
         tokens.addAll(TOKENS);
@@ -112,6 +139,44 @@ public abstract class AbstractAddonsCheck
 
 
 
+    @Nonnull
+    private boolean[] buildRelevantTokenFlags()
+    {
+        final Set<Integer> relevantTokens = getRelevantTokens();
+        int maxToken = -1;
+        for (final Integer token : relevantTokens) {
+            maxToken = Math.max(maxToken, token.intValue());
+        }
+        final boolean[] result = new boolean[maxToken + 1];
+        for (final Integer token : relevantTokens) {
+            result[token.intValue()] = true;
+        }
+        return result;
+    }
+
+
+
+    private boolean isRelevantToken(final int pTokenType)
+    {
+        if (iRelevantTokenFlags == null) {
+            iRelevantTokenFlags = buildRelevantTokenFlags();
+        }
+        return pTokenType >= 0 && pTokenType < iRelevantTokenFlags.length && iRelevantTokenFlags[pTokenType];
+    }
+
+
+
+    @Override
+    public final int[] getRequiredTokens()
+    {
+        if (iRequiredTokens == null) {
+            iRequiredTokens = buildRequiredTokens();
+        }
+        return iRequiredTokens.clone();
+    }
+
+
+
     @Override
     public final int[] getAcceptableTokens()
     {
@@ -137,7 +202,10 @@ public abstract class AbstractAddonsCheck
         iBinaryNameStack.clear();
         iOuterClassName = null;
         iMyPackage = null;
-        iClassDefStack.clear();
+        iCurrentFile = null;
+        iCurrentFileKnown = false;
+        iRelativePathBase = null;
+        iCurrentRelativePath = null;
     }
 
 
@@ -249,7 +317,7 @@ public abstract class AbstractAddonsCheck
                 break;
         }
 
-        if (getRelevantTokens().contains(Integer.valueOf(pAst.getType()))) {
+        if (isRelevantToken(pAst.getType())) {
             visitToken(getCurrentBinaryName(), pAst);
         }
     }
@@ -259,11 +327,9 @@ public abstract class AbstractAddonsCheck
     private void visitClassDef(final DetailAST pAst)
     {
         final String simpleName = Util.getFirstIdent(pAst);
-        iClassDefStack.push(simpleName);
-
-        final List<String> names = new ArrayList<>(iClassDefStack);
-        Collections.reverse(names);
-        final BinaryName binaryName = new BinaryName(iMyPackage, names);
+        final BinaryName enclosing = iBinaryNameStack.peek();
+        final BinaryName binaryName = enclosing != null ? enclosing.createInner(simpleName)
+            : new BinaryName(iMyPackage, Collections.singletonList(simpleName));
 
         iBinaryNameStack.push(binaryName);
         iClassDeclarationPositions.put(binaryName, pAst);
@@ -288,7 +354,7 @@ public abstract class AbstractAddonsCheck
     {
         super.leaveToken(pAst);
 
-        if (getRelevantTokens().contains(Integer.valueOf(pAst.getType()))) {
+        if (isRelevantToken(pAst.getType())) {
             leaveToken(getCurrentBinaryName(), pAst);
         }
 
@@ -301,7 +367,6 @@ public abstract class AbstractAddonsCheck
             case TokenTypes.ANNOTATION_DEF: // fall through
             case TokenTypes.ENUM_DEF:
                 leaveKnownType(getCurrentBinaryName(), pAst);
-                iClassDefStack.pop();
                 iBinaryNameStack.pop();
                 break;
             default:
@@ -336,7 +401,8 @@ public abstract class AbstractAddonsCheck
     @CheckForNull
     protected String getCurrentSimpleName()
     {
-        return iClassDefStack.peek();
+        final BinaryName current = iBinaryNameStack.peek();
+        return current != null ? current.getSimpleName() : null;
     }
 
 
@@ -354,4 +420,59 @@ public abstract class AbstractAddonsCheck
     {
         return apiFixer;
     }
+
+
+
+    /**
+     * Gets the canonical form of the currently analyzed file. Canonicalization requires file system access, so it is
+     * performed only once per tree.
+     *
+     * @return the canonical current file, or <code>null</code> if Checkstyle did not provide a file name
+     */
+    @CheckForNull
+    protected File getCurrentFile()
+    {
+        if (!iCurrentFileKnown) {
+            final File file = apiFixer.getCurrentFileName();
+            iCurrentFile = file != null ? Util.canonize(file) : null;
+            iCurrentFileKnown = true;
+        }
+        return iCurrentFile;
+    }
+
+
+
+    /**
+     * Gets the path of the currently analyzed file relative to the given base directory. The result is cached for the
+     * current tree, so subsequent calls with the same base directory are cheap.
+     *
+     * @param pBaseDir the base directory, in canonical form
+     * @return the relative path using the platform's separator characters, or <code>null</code> if the current file
+     *     is not located below the base directory
+     */
+    @CheckForNull
+    protected String getCurrentFileRelativePath(@Nonnull final File pBaseDir)
+    {
+        if (!pBaseDir.equals(iRelativePathBase)) {
+            String result = null;
+            final File file = getCurrentFile();
+            if (file != null) {
+                final String basePath = pBaseDir.getPath();
+                final String filePath = file.getPath();
+                if (basePath.endsWith(File.separator)) {
+                    // file system root
+                    if (filePath.length() > basePath.length() && filePath.startsWith(basePath)) {
+                        result = filePath.substring(basePath.length());
+                    }
+                }
+                else if (filePath.length() > basePath.length() + 1 && filePath.startsWith(basePath)
+                    && filePath.startsWith(File.separator, basePath.length())) {
+                    result = filePath.substring(basePath.length() + 1);
+                }
+            }
+            iCurrentRelativePath = result;
+            iRelativePathBase = pBaseDir;
+        }
+        return iCurrentRelativePath;
+    }
 }
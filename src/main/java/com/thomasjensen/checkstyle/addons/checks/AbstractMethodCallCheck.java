@@ -35,6 +35,9 @@ import com.thomasjensen.checkstyle.addons.util.Util;
 /**
  * Checks deriving from this type are aware of method calls occurring anywhere in the source, and get explicitly
  * notified when such calls are encountered. The full qualifier of the call is provided.
+ * <p>Relevance of a call is determined in two stages. First, {@link #isRelevantMethodName} looks at the simple name
+ * of the called method only. Only for calls which pass this stage is the qualifier determined, which means walking
+ * the AST and building a String, and passed to {@link #isRelevantCall}.</p>
  */
 public abstract class AbstractMethodCallCheck
     extends AbstractAddonsCheck
@@ -66,6 +69,22 @@ public abstract class AbstractMethodCallCheck
 
 
 
+    /**
+     * Cheap pre-filter which determines if calls to methods of the given name may be relevant at all. Only if this
+     * method returns <code>true</code> is the qualifier of the call determined and {@link #isRelevantCall} called.
+     * Checks which can reject most calls based on the method name alone should override this method, so that the
+     * qualifier is not computed needlessly. The default implementation returns <code>true</code>.
+     *
+     * @param pMethodName the simple name of the called method
+     * @return <code>false</code> if the call is certainly not relevant, <code>true</code> if it might be
+     */
+    protected boolean isRelevantMethodName(@Nonnull final String pMethodName)
+    {
+        return true;
+    }
+
+
+
     /**
      * Filter method which determines if the given method call is considered relevant.
      *
@@ -148,6 +167,9 @@ public abstract class AbstractMethodCallCheck
     {
         // pAst is a METHOD_CALL, CTOR_CALL, or SUPER_CTOR_CALL
         final String calledMethodName = pKeyword ? pAst.getText() : findCalledMethodName(pAst).getText();
+        if (!isRelevantMethodName(calledMethodName)) {
+            return;
+        }
         final String qualifier = pKeyword ? null : extractQualifier(pAst, calledMethodName);
 
         if (isRelevantCall(qualifier, calledMethodName)) {
@@ -15,11 +15,9 @@ package com.thomasjensen.checkstyle.addons.checks;
  * program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -31,13 +29,28 @@ import net.jcip.annotations.Immutable;
  * Represents a Java binary class name for reference types, in the form of its fragments. This is the only way to tell
  * the difference between a class called <code>A$B</code> and a class called <code>A</code> that has an inner class
  * <code>B</code>.
+ * <p>A binary name of an inner class is linked to the binary name of its enclosing class, so creating the binary name
+ * of a nested class is cheap, no matter how deep the nesting.</p>
  */
 @Immutable
 public final class BinaryName
 {
     private final String pkg;
 
-    private final List<String> cls;
+    /** binary name of the enclosing class, or <code>null</code> if this is an outer class */
+    private final BinaryName parent;
+
+    /** simple name of the class represented by this binary name */
+    private final String simpleName;
+
+    /** simple name of the outer class */
+    private final String outerSimpleName;
+
+    /** the hash code, computed once */
+    private final int hash;
+
+    /** the string representation, built from the string representation of the enclosing class */
+    private final String stringValue;
 
 
 
@@ -50,21 +63,7 @@ public final class BinaryName
      */
     public BinaryName(@Nullable final String pPkg, @Nonnull final String pOuterCls, @Nullable final String... pInnerCls)
     {
-        pkg = pPkg;
-
-        List<String> nameList = new ArrayList<>();
-        if (pOuterCls != null) {
-            nameList.add(pOuterCls);
-        }
-        else {
-            throw new IllegalArgumentException("pOuterCls was null");
-        }
-        if (pInnerCls != null) {
-            for (final String inner : pInnerCls) {
-                nameList.add(inner);
-            }
-        }
-        cls = Collections.unmodifiableList(nameList);
+        this(pPkg, toList(pOuterCls, pInnerCls));
     }
 
 
@@ -77,34 +76,118 @@ public final class BinaryName
      */
     public BinaryName(@Nullable final String pPkg, @Nonnull final Collection<String> pClsNames)
     {
-        pkg = pPkg;
         if (pClsNames.size() == 0) {
             throw new IllegalArgumentException("pClsNames is empty");
         }
-        cls = Collections.unmodifiableList(new ArrayList<>(pClsNames));
+        final Iterator<String> iter = pClsNames.iterator();
+        BinaryName current = null;
+        String name = iter.next();
+        while (iter.hasNext()) {
+            current = current == null ? new BinaryName(pPkg, name) : current.createInner(name);
+            name = iter.next();
+        }
+
+        pkg = pPkg;
+        parent = current;
+        simpleName = name;
+        outerSimpleName = current != null ? current.outerSimpleName : name;
+        hash = computeHash(pPkg, current, name);
+        stringValue = buildString(pPkg, current, name);
     }
 
 
 
-    @Override
-    public String toString()
+    private BinaryName(@Nullable final String pPkg, @Nonnull final String pOuterCls)
     {
-        StringBuilder sb = new StringBuilder();
-        if (pkg != null) {
-            sb.append(pkg);
-            sb.append('.');
+        pkg = pPkg;
+        parent = null;
+        simpleName = pOuterCls;
+        outerSimpleName = pOuterCls;
+        hash = computeHash(pPkg, null, pOuterCls);
+        stringValue = buildString(pPkg, null, pOuterCls);
+    }
+
+
+
+    private BinaryName(@Nonnull final BinaryName pParent, @Nonnull final String pSimpleName)
+    {
+        pkg = pParent.pkg;
+        parent = pParent;
+        simpleName = pSimpleName;
+        outerSimpleName = pParent.outerSimpleName;
+        hash = computeHash(pkg, pParent, pSimpleName);
+        stringValue = buildString(pkg, pParent, pSimpleName);
+    }
+
+
+
+    @Nonnull
+    private static Collection<String> toList(@Nonnull final String pOuterCls, @Nullable final String... pInnerCls)
+    {
+        if (pOuterCls == null) {
+            throw new IllegalArgumentException("pOuterCls was null");
         }
-        for (final Iterator<String> iter = cls.iterator(); iter.hasNext();) {
-            sb.append(iter.next());
-            if (iter.hasNext()) {
-                sb.append('$');
-            }
+        final String[] names = new String[pInnerCls != null ? pInnerCls.length + 1 : 1];
+        names[0] = pOuterCls;
+        if (pInnerCls != null) {
+            System.arraycopy(pInnerCls, 0, names, 1, pInnerCls.length);
         }
+        return Arrays.asList(names);
+    }
+
+
+
+    private static int computeHash(@Nullable final String pPkg, @Nullable final BinaryName pParent,
+        @Nullable final String pSimpleName)
+    {
+        int result = pParent != null ? pParent.hash : (pPkg != null ? pPkg.hashCode() : 0);
+        result = 31 * result + (pSimpleName != null ? pSimpleName.hashCode() : 0);
+        return result;
+    }
+
+
+
+    @Nonnull
+    private static String buildString(@Nullable final String pPkg, @Nullable final BinaryName pParent,
+        @Nonnull final String pSimpleName)
+    {
+        final StringBuilder sb = new StringBuilder();
+        if (pParent != null) {
+            sb.append(pParent.stringValue);
+            sb.append('$');
+        }
+        else if (pPkg != null) {
+            sb.append(pPkg);
+            sb.append('.');
+        }
+        sb.append(pSimpleName);
         return sb.toString();
     }
 
 
 
+    /**
+     * Create the binary name of a class nested in the class represented by this binary name.
+     *
+     * @param pSimpleName simple name of the inner class
+     * @return the binary name of the inner class
+     */
+    @Nonnull
+    BinaryName createInner(@Nonnull final String pSimpleName)
+    {
+        return new BinaryName(this, pSimpleName);
+    }
+
+
+
+    @Override
+    public String toString()
+    {
+        return stringValue;
+    }
+
+
+
     @Override
     public boolean equals(final Object pOther)
     {
@@ -115,16 +198,25 @@ public final class BinaryName
             return false;
         }
 
-        BinaryName other = (BinaryName) pOther;
-
-        if (pkg != null ? !pkg.equals(other.pkg) : other.pkg != null) {
-            return false;
-        }
-        if (!cls.equals(other.cls)) {
-            return false;
+        BinaryName bn1 = this;
+        BinaryName bn2 = (BinaryName) pOther;
+        while (bn1 != null && bn2 != null) {
+            if (bn1 == bn2) {
+                return true;
+            }
+            if (bn1.hash != bn2.hash) {
+                return false;
+            }
+            if (bn1.simpleName != null ? !bn1.simpleName.equals(bn2.simpleName) : bn2.simpleName != null) {
+                return false;
+            }
+            if (bn1.parent == null && bn2.parent == null) {
+                return bn1.pkg != null ? bn1.pkg.equals(bn2.pkg) : bn2.pkg == null;
+            }
+            bn1 = bn1.parent;
+            bn2 = bn2.parent;
         }
-
-        return true;
+        return false;
     }
 
 
@@ -132,9 +224,20 @@ public final class BinaryName
     @Override
     public int hashCode()
     {
-        int result = pkg != null ? pkg.hashCode() : 0;
-        result = 31 * result + cls.hashCode();
-        return result;
+        return hash;
+    }
+
+
+
+    /**
+     * Getter.
+     *
+     * @return the simple name of the class represented by this binary name, which is the outer class or the innermost
+     * inner class
+     */
+    String getSimpleName()
+    {
+        return simpleName;
     }
 
 
@@ -153,7 +256,7 @@ public final class BinaryName
      */
     public String getOuterSimpleName()
     {
-        return cls.get(0);
+        return outerSimpleName;
     }
 
 
@@ -166,7 +269,7 @@ public final class BinaryName
      */
     public String getInnerSimpleName()
     {
-        return cls.size() > 1 ? cls.get(cls.size() - 1) : null;
+        return parent != null ? simpleName : null;
     }
 
 
@@ -37,7 +37,8 @@ public class IllegalMethodCallCheck
 {
     private Set<String> illegalMethodNames = null;
 
-    private Set<String> excludedQualifiers = new HashSet<>();
+    /** the excluded qualifiers, which may include prefix patterns like <code>org.slf4j.*</code> */
+    private QualifierTrie excludedQualifiers = new QualifierTrie();
 
 
 
@@ -49,10 +50,18 @@ public class IllegalMethodCallCheck
 
 
 
+    @Override
+    protected boolean isRelevantMethodName(@Nonnull final String pMethodName)
+    {
+        return illegalMethodNames.contains(pMethodName);
+    }
+
+
+
     @Override
     protected boolean isRelevantCall(@Nullable final String pQualifier, @Nonnull final String pMethodName)
     {
-        return illegalMethodNames.contains(pMethodName) && !excludedQualifiers.contains(pQualifier);
+        return illegalMethodNames.contains(pMethodName) && !excludedQualifiers.matches(pQualifier);
     }
 
 
@@ -89,12 +98,11 @@ public class IllegalMethodCallCheck
     /**
      * Setter.
      *
-     * @param pExcludedQualifiers the list of excluded contexts
+     * @param pExcludedQualifiers the list of excluded contexts, each of which may end in <code>.*</code> in order to
+     *     exclude all qualifiers starting with the given prefix
      */
     public void setExcludedQualifiers(final String... pExcludedQualifiers)
     {
-        final Set<String> newExclusions = new HashSet<>();
-        Collections.addAll(newExclusions, pExcludedQualifiers);
-        excludedQualifiers = newExclusions;
+        excludedQualifiers = new QualifierTrie(pExcludedQualifiers);
     }
 }
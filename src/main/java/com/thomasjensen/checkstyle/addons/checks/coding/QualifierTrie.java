@@ -0,0 +1,131 @@
+package com.thomasjensen.checkstyle.addons.checks.coding;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * A set of method call qualifiers, organized as a trie of their dot-separated segments. Besides exact qualifiers like
+ * <code>Foo.Bar</code>, it supports prefix patterns like <code>org.slf4j.*</code>, which match any qualifier with at
+ * least one more segment after the given prefix (e.g. <code>org.slf4j.LoggerFactory</code>).
+ */
+@Immutable
+final class QualifierTrie
+{
+    private static final String WILDCARD = "*";
+
+    private final Node root = new Node();
+
+    private final boolean empty;
+
+
+
+    /** A node of the trie, representing one segment of a qualifier. */
+    private static final class Node
+    {
+        private final Map<String, Node> children = new HashMap<>();
+
+        /** a qualifier ends here */
+        private boolean terminal = false;
+
+        /** a prefix pattern ends here, so any further segments match */
+        private boolean wildcard = false;
+    }
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pQualifiers the qualifiers and qualifier patterns
+     * @throws IllegalArgumentException a pattern contains a wildcard other than as its last segment
+     */
+    QualifierTrie(@Nonnull final String... pQualifiers)
+    {
+        boolean isEmpty = true;
+        for (final String qualifier : pQualifiers) {
+            final String trimmed = qualifier != null ? qualifier.trim() : "";
+            if (trimmed.length() > 0) {
+                add(trimmed);
+                isEmpty = false;
+            }
+        }
+        empty = isEmpty;
+    }
+
+
+
+    private void add(@Nonnull final String pQualifier)
+    {
+        final String[] segments = pQualifier.split("\\.", -1);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            if (WILDCARD.equals(segments[i])) {
+                if (i < segments.length - 1) {
+                    throw new IllegalArgumentException("Wildcard allowed only at the end of a qualifier: "
+                        + pQualifier);
+                }
+                node.wildcard = true;
+                return;
+            }
+            Node child = node.children.get(segments[i]);
+            if (child == null) {
+                child = new Node();
+                node.children.put(segments[i], child);
+            }
+            node = child;
+        }
+        node.terminal = true;
+    }
+
+
+
+    /**
+     * Determine if the given qualifier is contained in this set, either literally or by way of a prefix pattern.
+     *
+     * @param pQualifier a method call qualifier (may be <code>null</code>, which never matches)
+     * @return <code>true</code> if the qualifier is matched
+     */
+    boolean matches(@Nullable final String pQualifier)
+    {
+        if (pQualifier == null || empty) {
+            return false;
+        }
+        Node node = root;
+        int start = 0;
+        while (start <= pQualifier.length()) {
+            if (node.wildcard) {
+                return true;
+            }
+            int end = pQualifier.indexOf('.', start);
+            if (end < 0) {
+                end = pQualifier.length();
+            }
+            node = node.children.get(pQualifier.substring(start, end));
+            if (node == null) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return node.terminal;
+    }
+}
@@ -42,6 +42,9 @@ public class LocationReferenceCheck
 
     private Set<String> methodCalls = Collections.emptySet();
 
+    /** the simple method names from {@link #methodCalls}, used to reject most calls before looking at qualifiers */
+    private Set<String> methodNames = Collections.emptySet();
+
     private Set<String> variableNames = Collections.emptySet();
 
     private LocationReferenceOption location = LocationReferenceOption.Method;
@@ -66,6 +69,14 @@ public class LocationReferenceCheck
 
 
 
+    @Override
+    protected boolean isRelevantMethodName(@Nonnull final String pMethodName)
+    {
+        return methodNames.contains(pMethodName);
+    }
+
+
+
     @Override
     protected boolean isRelevantCall(@Nullable final String pQualifier, @Nonnull final String pMethodName)
     {
@@ -253,7 +264,12 @@ public class LocationReferenceCheck
     {
         final Set<String> newMethodCalls = new HashSet<>();
         Collections.addAll(newMethodCalls, pMethodCalls);
+        final Set<String> newMethodNames = new HashSet<>();
+        for (final String methodCall : newMethodCalls) {
+            newMethodNames.add(methodCall.substring(methodCall.lastIndexOf('.') + 1));
+        }
         methodCalls = Collections.unmodifiableSet(newMethodCalls);
+        methodNames = Collections.unmodifiableSet(newMethodNames);
     }
 
 
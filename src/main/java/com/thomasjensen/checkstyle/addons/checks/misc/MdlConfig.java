@@ -35,14 +35,25 @@ public class MdlConfig
 
     private final Pattern excludeRegex;
 
+    /** the compiled rules of {@link #json} */
+    private final MdlRules rules;
 
 
+
+    /**
+     * Constructor.
+     *
+     * @param pJson the parsed configuration, which must have been successfully validated
+     * @param pModuleRegex the compiled module regex
+     * @param pExcludeRegex the compiled exclude regex
+     */
     public MdlConfig(@Nullable final MdlJsonConfig pJson, @Nonnull final Pattern pModuleRegex,
         @Nonnull final Pattern pExcludeRegex)
     {
         json = pJson;
         moduleRegex = pModuleRegex;
         excludeRegex = pExcludeRegex;
+        rules = pJson != null ? new MdlRules(pJson) : null;
     }
 
 
@@ -73,4 +84,17 @@ public class MdlConfig
     {
         return excludeRegex;
     }
+
+
+
+    /**
+     * Getter.
+     *
+     * @return the compiled rules of the configuration, or <code>null</code> if no configuration is present
+     */
+    @CheckForNull
+    MdlRules getRules()
+    {
+        return rules;
+    }
 }
@@ -0,0 +1,154 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * JVM-wide cache of activated module directory layout configurations, used by the {@link ModuleDirectoryLayoutCheck}.
+ * Each configuration file is parsed and validated at most once for as long as it remains unchanged, no matter how many
+ * check instances use it or how often Checkstyle is run. Changes are detected by comparing the file's modification
+ * time and size.
+ */
+@ThreadSafe
+final class MdlConfigCache
+{
+    private static final MdlConfigCache INSTANCE = new MdlConfigCache();
+
+    /** Map from canonical path of the configuration file to the activated configuration */
+    private final ConcurrentMap<String, CachedConfig> entries = new ConcurrentHashMap<>();
+
+    /** the default configuration, which is loaded on first use */
+    private volatile MdlConfig defaultConfig = null;
+
+
+
+    /** An activated configuration, along with the information needed to detect changes. */
+    @Immutable
+    private static final class CachedConfig
+    {
+        private final long lastModified;
+
+        private final long length;
+
+        private final MdlConfig config;
+
+
+
+        CachedConfig(final long pLastModified, final long pLength, @Nonnull final MdlConfig pConfig)
+        {
+            lastModified = pLastModified;
+            length = pLength;
+            config = pConfig;
+        }
+
+
+
+        boolean isUpToDate(final long pLastModified, final long pLength)
+        {
+            return lastModified == pLastModified && length == pLength;
+        }
+    }
+
+
+
+    private MdlConfigCache()
+    {
+        super();
+    }
+
+
+
+    @Nonnull
+    static MdlConfigCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+
+
+    /**
+     * Get the activated configuration from a configuration file. The file is only read if it is not already present
+     * in the cache, or if it has changed since it was cached.
+     *
+     * @param pConfigFile the location of the JSON configuration file, as specified by the user
+     * @return the activated configuration
+     * @throws FileNotFoundException the configuration file does not exist
+     * @throws IllegalArgumentException the configuration file could not be parsed or contains an invalid
+     *     configuration
+     */
+    @Nonnull
+    public MdlConfig get(@Nonnull final String pConfigFile)
+        throws FileNotFoundException
+    {
+        final File file = Util.canonize(new File(pConfigFile));
+        final String path = file.getPath();
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+
+        final CachedConfig cached = entries.get(path);
+        if (cached != null && cached.isUpToDate(lastModified, length)) {
+            return cached.config;
+        }
+
+        MdlConfig result = null;
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            result = ModuleDirectoryLayoutCheck.activateConfigFile(fis, pConfigFile);
+        }
+        catch (FileNotFoundException | IllegalArgumentException e) {
+            entries.remove(path);
+            throw e;
+        }
+        finally {
+            Util.closeQuietly(fis);
+        }
+        if (lastModified != 0L) {
+            entries.put(path, new CachedConfig(lastModified, length, result));
+        }
+        return result;
+    }
+
+
+
+    /**
+     * Get the default configuration which is bundled with the check. It is loaded only once.
+     *
+     * @return the default configuration
+     */
+    @Nonnull
+    public MdlConfig getDefaultConfig()
+    {
+        MdlConfig result = defaultConfig;
+        if (result == null) {
+            result = ModuleDirectoryLayoutCheck.loadDefaultConfig();
+            defaultConfig = result;
+        }
+        return result;
+    }
+}
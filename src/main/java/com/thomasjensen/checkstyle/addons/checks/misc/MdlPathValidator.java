@@ -0,0 +1,557 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.NotThreadSafe;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * Applies the rules of a module directory layout configuration to file paths. Only the paths are inspected, the files
+ * themselves are never opened. Used by {@link ModuleDirectoryLayoutCheck} and by {@link ModuleDirectoryLayoutScanner}.
+ */
+@NotThreadSafe
+final class MdlPathValidator
+{
+    /** the canonical base directory, usually the project's root directory */
+    private final File baseDir;
+
+    private final MdlConfig mdlConfig;
+
+    /** Map from directory (the canonical path up to and including the last separator) to the information on it */
+    private final Map<String, DirectoryInfo> directoryInfos = new HashMap<>();
+
+
+
+    /**
+     * Receives the violations found by a {@link MdlPathValidator}.
+     */
+    interface Reporter
+    {
+        /**
+         * Report a violation.
+         *
+         * @param pMessageKey the key of the message in the <code>messages.properties</code> bundle
+         * @param pArgs the message arguments
+         */
+        void report(@Nonnull String pMessageKey, @Nonnull Object... pArgs);
+    }
+
+
+
+    /**
+     * The location of a checked file relative to its module.
+     */
+    @Immutable
+    private static final class ModuleLocation
+    {
+        private final String modulePath;
+
+        /** the path of the file relative to the module directory */
+        private final String pathInModule;
+
+
+
+        ModuleLocation(@Nonnull final String pModulePath, @Nonnull final String pPathInModule)
+        {
+            modulePath = pModulePath;
+            pathInModule = pPathInModule;
+        }
+    }
+
+
+
+    /**
+     * The components of a file path and the verdicts of this check which depend only on the directory of a file.
+     * Computed once for each directory per run, so that only the file-specific rules must be evaluated for the files in
+     * the directory.
+     */
+    @Immutable
+    private static final class DirectoryInfo
+    {
+        private final String modulePath;
+
+        /** the MDL path, or <code>null</code> if the directory is not located in an MDL path */
+        private final String mdlPath;
+
+        private final MdlRules.PathRules pathRules;
+
+        private final List<String> specificFolders;
+
+        private final boolean nestedSrcFolder;
+
+        private final boolean allowedInModule;
+
+        private final boolean allowFolderMatch;
+
+        private final boolean denyFolderMatch;
+
+        private final boolean topLevelFoldersOk;
+
+
+
+        /**
+         * Constructor for a directory which is not located in an MDL path.
+         *
+         * @param pModulePath the module path
+         */
+        DirectoryInfo(@Nonnull final String pModulePath)
+        {
+            modulePath = pModulePath;
+            mdlPath = null;
+            pathRules = null;
+            specificFolders = Collections.emptyList();
+            nestedSrcFolder = false;
+            allowedInModule = false;
+            allowFolderMatch = false;
+            denyFolderMatch = false;
+            topLevelFoldersOk = false;
+        }
+
+
+
+        DirectoryInfo(@Nonnull final String pModulePath, @Nonnull final String pMdlPath,
+            @Nonnull final MdlRules.PathRules pPathRules, @Nonnull final List<String> pSpecificFolders,
+            final boolean pNestedSrcFolder, final boolean pAllowedInModule, final boolean pAllowFolderMatch,
+            final boolean pDenyFolderMatch, final boolean pTopLevelFoldersOk)
+        {
+            modulePath = pModulePath;
+            mdlPath = pMdlPath;
+            pathRules = pPathRules;
+            specificFolders = pSpecificFolders;
+            nestedSrcFolder = pNestedSrcFolder;
+            allowedInModule = pAllowedInModule;
+            allowFolderMatch = pAllowFolderMatch;
+            denyFolderMatch = pDenyFolderMatch;
+            topLevelFoldersOk = pTopLevelFoldersOk;
+        }
+    }
+
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pBaseDir the canonical base directory
+     * @param pMdlConfig the configuration to apply
+     */
+    MdlPathValidator(@Nonnull final File pBaseDir, @Nonnull final MdlConfig pMdlConfig)
+    {
+        baseDir = pBaseDir;
+        mdlConfig = pMdlConfig;
+    }
+
+
+
+    /**
+     * Check the location of a file.
+     *
+     * @param pFilePath the canonical path of the file
+     * @param pReporter receives the violations found
+     */
+    void validate(@Nonnull final String pFilePath, @Nonnull final Reporter pReporter)
+    {
+        if (mdlConfig.getRules() == null) {
+            return;
+        }
+        final ModuleLocation location = locateInModule(pFilePath, pReporter);
+        if (location == null) {
+            return;
+        }
+        final DirectoryInfo dirInfo = getDirectoryInfo(pFilePath, location, pReporter);
+        if (dirInfo == null) {
+            return;
+        }
+        final DecomposedPath decomposedPath = decompose(dirInfo, location);
+
+        if (dirInfo.nestedSrcFolder) {
+            pReporter.report("moduledirectorylayout.nestedsrcfolder", decomposedPath.getSpecificPath());
+        }
+
+        else if (!dirInfo.allowedInModule) {
+            pReporter.report("moduledirectorylayout.notinthismodule", decomposedPath.getMdlPath(),
+                decomposedPath.getModulePath());
+        }
+
+        else if (!isSpecificPathAllowedInMdl(dirInfo, decomposedPath) || !dirInfo.topLevelFoldersOk) {
+            pReporter.report("moduledirectorylayout.illegalcontent", decomposedPath.getMdlPath(),
+                decomposedPath.getSpecificPath());
+        }
+    }
+
+
+
+    /**
+     * Split the path of a file into its components.
+     *
+     * @param pFilePath the canonical path of the file
+     * @param pReporter receives the violations found while determining the components
+     * @return the components, or <code>null</code> if the file is not checked or not located in an MDL path
+     */
+    @CheckForNull
+    DecomposedPath decomposePath(@Nonnull final String pFilePath, @Nonnull final Reporter pReporter)
+    {
+        if (mdlConfig.getRules() == null) {
+            return null;
+        }
+        final ModuleLocation location = locateInModule(pFilePath, pReporter);
+        if (location == null) {
+            return null;
+        }
+        final DirectoryInfo dirInfo = getDirectoryInfo(pFilePath, location, pReporter);
+        if (dirInfo == null) {
+            return null;
+        }
+        return decompose(dirInfo, location);
+    }
+
+
+
+    /**
+     * Determine if every file below the given directory is excluded from checking by the exclude regex, so that the
+     * directory need not be visited at all. This is the case if the regex matches the relative directory path followed
+     * by a separator without looking any further, because then it also matches the path of every file below it.
+     *
+     * @param pDirPath the canonical path of the directory
+     * @return <code>true</code> if all files below the directory are excluded
+     */
+    boolean isExcludedDirectory(@Nonnull final String pDirPath)
+    {
+        if (!pDirPath.startsWith(baseDir.getPath())) {
+            return false;
+        }
+        final String dirPath = cutSlashes(pDirPath.substring(baseDir.getPath().length()));
+        if (dirPath.isEmpty()) {
+            return false;
+        }
+        final Matcher matcher = mdlConfig.getExcludeRegex().matcher(dirPath + File.separatorChar);
+        return matcher.find() && !matcher.hitEnd();
+    }
+
+
+
+    @Nonnull
+    MdlConfig getMdlConfig()
+    {
+        return mdlConfig;
+    }
+
+
+
+    private boolean isAllowListPostProcessingOk(@Nonnull final MdlRules.PathRules pPathRules,
+        @Nonnull final List<String> pSpecificFolders)
+    {
+        boolean ok = true;
+        for (final String topLevelFolder : pPathRules.getTopLevelFolders()) {
+            ok = isTopLevelFolderNestingOk(topLevelFolder, pSpecificFolders);
+            if (!ok) {
+                break;
+            }
+        }
+        return ok;
+    }
+
+
+
+    private boolean checkTopLevelFolder(@Nonnull final String pTopLevelFolder,
+        @Nonnull final List<String> pSpecificFolders, final boolean pCaseSensitive)
+    {
+        boolean ok = true;
+        if (pSpecificFolders.size() > 0) {
+            ok = Util.stringEquals(pSpecificFolders.get(0), pTopLevelFolder, pCaseSensitive)
+                && isTopLevelFolderNestingOk(pTopLevelFolder, pSpecificFolders);
+        }
+
+        return ok;
+    }
+
+
+
+    private boolean isTopLevelFolderNestingOk(@Nonnull final String pTopLevelFolder,
+        @Nonnull final List<String> pSpecificFolders)
+    {
+        boolean ok = true;
+        if (pSpecificFolders.size() > 1) {
+            ok = !Util.containsString(pSpecificFolders.subList(1, pSpecificFolders.size()), pTopLevelFolder,
+                false); // never case sensitive
+        }
+        return ok;
+    }
+
+
+
+    private boolean isSpecificPathAllowedInMdl(@Nonnull final DirectoryInfo pDirInfo,
+        @Nonnull final DecomposedPath pDecomposedPath)
+    {
+        final MdlRules.PathRules pathRules = pDirInfo.pathRules;
+        boolean allowed = true;
+        if (pathRules.isAllowListActive()) {
+            allowed = pDirInfo.allowFolderMatch || processSpecList(pathRules.getAllowFileRules(), pDecomposedPath,
+                true);
+        }
+        final boolean denied = pDirInfo.denyFolderMatch || processSpecList(pathRules.getDenyFileRules(),
+            pDecomposedPath, false);
+        return allowed && !denied;
+    }
+
+
+
+    private boolean isMdlAllowedForModule(@Nonnull final MdlRules.PathRules pPathRules,
+        @Nonnull final DecomposedPath pDecomposedPath)
+    {
+        return pDecomposedPath.getModulePath().isEmpty() || pPathRules.getModules() == null || pPathRules.getModules()
+            .matcher(pDecomposedPath.getModulePath()).find();
+    }
+
+
+
+    private boolean processSpecList(@Nonnull final List<MdlRules.Rule> pSpecList,
+        @Nonnull final DecomposedPath pDecomposedPath, final boolean pIsAllowList)
+    {
+        boolean match = false;
+        for (final MdlRules.Rule rule : pSpecList) {
+            switch (rule.getType()) {
+
+                case FileExtensions:
+                    match = rule.matchesExtension(pDecomposedPath.getFileExtensions());
+                    break;
+
+                case TopLevelFolder:
+                    if (pIsAllowList) {
+                        match = checkTopLevelFolder(rule.getSpec(), pDecomposedPath.getSpecificFolders(),
+                            rule.isCaseSensitive());
+                        break;
+                    }
+                    // fall through
+
+                case SimpleFolder:
+                    match = Util.containsString(pDecomposedPath.getSpecificFolders(), rule.getSpec(),
+                        rule.isCaseSensitive());
+                    break;
+
+                case SimpleName:
+                    match = Util.stringEquals(pDecomposedPath.getSimpleFilename(), rule.getSpec(),
+                        rule.isCaseSensitive());
+                    break;
+
+                case SpecificPathRegex:
+                    match = rule.getPattern().matcher(pDecomposedPath.getSpecificPath()).find();
+                    break;
+
+                case FromPath:
+                    // only possible in deny lists
+                    match = processSpecList(rule.getReferencedRules(), pDecomposedPath, pIsAllowList);
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unexpected enum constant: " + rule.getType());
+            }
+            if (match) {
+                break;
+            }
+        }
+        return match;
+    }
+
+
+
+    /**
+     * Determine the module of a file. This depends on the complete file path, because the exclusion regex and the
+     * module regex are applied to the complete path.
+     *
+     * @param pFilePath the canonical path of the file
+     * @param pReporter receives the violations found
+     * @return the module location, or <code>null</code> if the file is not checked
+     */
+    @CheckForNull
+    private ModuleLocation locateInModule(@Nonnull final String pFilePath, @Nonnull final Reporter pReporter)
+    {
+        final Pattern moduleRegexp = mdlConfig.getModuleRegex();
+        String modulePath = "";
+
+        if (!pFilePath.startsWith(baseDir.getPath())) {
+            return null;
+        }
+        String filePath = cutSlashes(pFilePath.substring(baseDir.getPath().length()));
+
+        if (mdlConfig.getExcludeRegex().matcher(filePath).find()) {
+            return null;   // the file path is excluded from checking
+        }
+
+        if (moduleRegexp.pattern().length() > 0) {
+            final Matcher matcher = moduleRegexp.matcher(filePath);
+            if (matcher.find() && matcher.start() == 0) {
+                modulePath = cutSlashes(matcher.group(0));
+            }
+            else if (filePath.contains("\\") || filePath.contains("/")) {     // no error if file is in baseDir
+                pReporter.report("moduledirectorylayout.invalid.module", filePath, moduleRegexp.pattern());
+                return null;
+            }
+        }
+        if (modulePath.length() > 0) {
+            filePath = cutSlashes(filePath.substring(modulePath.length()));
+        }
+        return new ModuleLocation(modulePath, filePath);
+    }
+
+
+
+    /**
+     * Get the information on the directory of a file from the cache, or compute it if the directory was not
+     * encountered before.
+     *
+     * @param pFilePath the canonical path of the file
+     * @param pLocation the module location of the file
+     * @param pReporter receives the violations found
+     * @return the directory information, or <code>null</code> if the directory is not located in an MDL path
+     */
+    @CheckForNull
+    private DirectoryInfo getDirectoryInfo(@Nonnull final String pFilePath, @Nonnull final ModuleLocation pLocation,
+        @Nonnull final Reporter pReporter)
+    {
+        final String dirKey = pFilePath.substring(0, lastIndexOfSlash(pFilePath) + 1);
+        DirectoryInfo result = directoryInfos.get(dirKey);
+        if (result == null || !result.modulePath.equals(pLocation.modulePath)) {
+            result = createDirectoryInfo(pLocation);
+            directoryInfos.put(dirKey, result);
+        }
+
+        if (result.mdlPath == null) {
+            if (pLocation.pathInModule.indexOf(File.separatorChar) > 0) {   // no error if file is in module root
+                pReporter.report("moduledirectorylayout.invalid.mdlpath", pLocation.pathInModule);
+            }
+            return null;
+        }
+        return result;
+    }
+
+
+
+    @Nonnull
+    private DirectoryInfo createDirectoryInfo(@Nonnull final ModuleLocation pLocation)
+    {
+        final MdlRules rules = mdlConfig.getRules();
+        final String mdlPath = rules.findMdlPath(pLocation.pathInModule);
+        if (mdlPath == null) {
+            return new DirectoryInfo(pLocation.modulePath);
+        }
+
+        final String specificPath = cutSlashes(pLocation.pathInModule.substring(mdlPath.length()));
+        final String[] fragments = specificPath.split("[\\\\/]");
+        final List<String> specificFolders = Collections.unmodifiableList(
+            new ArrayList<>(Arrays.asList(fragments).subList(0, fragments.length - 1)));
+
+        // The folder-based rules are evaluated using the first file encountered in the directory.
+        final MdlRules.PathRules pathRules = rules.getPathRules(mdlPath);
+        final DecomposedPath firstFile = new DecomposedPath(pLocation.modulePath, mdlPath, specificPath,
+            getSimpleFilename(specificPath), Collections.<String>emptySet(), specificFolders);
+        return new DirectoryInfo(pLocation.modulePath, mdlPath, pathRules, specificFolders,
+            !mdlConfig.getJson().getSettings().isAllowNestedSrcFolder() && specificFolders.contains("src"),
+            isMdlAllowedForModule(pathRules, firstFile),
+            processSpecList(pathRules.getAllowFolderRules(), firstFile, true),
+            processSpecList(pathRules.getDenyFolderRules(), firstFile, false),
+            isAllowListPostProcessingOk(pathRules, specificFolders));
+    }
+
+
+
+    @Nonnull
+    private DecomposedPath decompose(@Nonnull final DirectoryInfo pDirInfo, @Nonnull final ModuleLocation pLocation)
+    {
+        final String specificPath = cutSlashes(pLocation.pathInModule.substring(pDirInfo.mdlPath.length()));
+        return new DecomposedPath(pLocation.modulePath, pDirInfo.mdlPath, specificPath,
+            getSimpleFilename(specificPath), getFileExtensions(specificPath), pDirInfo.specificFolders);
+    }
+
+
+
+    @Nonnull
+    private static String getSimpleFilename(@Nonnull final String pSpecificPath)
+    {
+        return pSpecificPath.substring(pSpecificPath.lastIndexOf(File.separatorChar) + 1);
+    }
+
+
+
+    /**
+     * Determine the file extensions of a file. The first dot in the file name starts the longest extension, and every
+     * further dot starts a shorter one. A dot at the end of the file name does not start an extension.
+     *
+     * @param pPath a file path
+     * @return the file extensions, for example <code>tar.gz</code> and <code>gz</code>
+     */
+    @Nonnull
+    private static Set<String> getFileExtensions(@Nonnull final String pPath)
+    {
+        final int firstDot = pPath.indexOf('.', lastIndexOfSlash(pPath) + 1);
+        if (firstDot < 0 || firstDot == pPath.length() - 1) {
+            return Collections.emptySet();
+        }
+        final Set<String> result = new HashSet<>();
+        for (int d = pPath.lastIndexOf('.'); d > firstDot + 1; d = pPath.lastIndexOf('.', d - 1)) {
+            result.add(pPath.substring(d + 1));
+        }
+        result.add(pPath.substring(firstDot + 1));
+        return result;
+    }
+
+
+
+    private static int lastIndexOfSlash(@Nonnull final String pPath)
+    {
+        return Math.max(pPath.lastIndexOf('/'), pPath.lastIndexOf('\\'));
+    }
+
+
+
+    @Nonnull
+    static String cutSlashes(@Nonnull final String pPath)
+    {
+        String result = pPath;
+        if (pPath.length() > 0) {
+            boolean leadingSlash = false;
+            if (pPath.charAt(0) == '\\' || pPath.charAt(0) == '/') {
+                leadingSlash = true;
+            }
+            boolean trailingSlash = false;
+            if (pPath.length() > 1 && (pPath.charAt(pPath.length() - 1) == '\\' || pPath.charAt(pPath.length() - 1)
+                == '/')) {
+                trailingSlash = true;
+            }
+            if (leadingSlash || trailingSlash) {
+                result = pPath.substring(leadingSlash ? 1 : 0, pPath.length() - (trailingSlash ? 1 : 0));
+            }
+        }
+        return result;
+    }
+}
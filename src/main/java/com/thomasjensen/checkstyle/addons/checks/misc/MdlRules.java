@@ -0,0 +1,484 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.jcip.annotations.Immutable;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * The rules of a validated {@link MdlJsonConfig}, compiled once when the configuration is activated. File extension
+ * lists are split into hash sets, regular expressions are compiled, and <code>FromPath</code> references are resolved,
+ * so that checking a file requires only lookups.
+ */
+@Immutable
+final class MdlRules
+{
+    /** Map from MDL path to the rules for that MDL path */
+    private final Map<String, PathRules> pathRules;
+
+    /** the root of the segment trie built from all MDL paths */
+    private final TrieNode mdlPathTrie = new TrieNode();
+
+
+
+    /** SpecLists can be allow or deny lists. */
+    private enum SpecListType
+    {
+        Allow(true),
+
+        Deny(false);
+
+        //
+
+        private final boolean caseSensitive;
+
+
+
+        private SpecListType(final boolean pCaseSensitive)
+        {
+            caseSensitive = pCaseSensitive;
+        }
+
+
+
+        public boolean isCaseSensitive()
+        {
+            return caseSensitive;
+        }
+    }
+
+
+
+    /**
+     * One compiled element of an allow or deny list.
+     */
+    @Immutable
+    static final class Rule
+    {
+        private final MdlContentSpecType type;
+
+        private final String spec;
+
+        private final boolean caseSensitive;
+
+        /** the file extensions of a <code>FileExtensions</code> rule, folded if not case sensitive */
+        private final Set<String> extensions;
+
+        /** the compiled pattern of a <code>SpecificPathRegex</code> rule */
+        private final Pattern pattern;
+
+        /** the resolved allow list referenced by a <code>FromPath</code> rule */
+        private final List<Rule> referencedRules;
+
+
+
+        private Rule(@Nonnull final MdlContentSpecType pType, @Nonnull final String pSpec,
+            final boolean pCaseSensitive, @Nullable final Set<String> pExtensions, @Nullable final Pattern pPattern,
+            @Nullable final List<Rule> pReferencedRules)
+        {
+            type = pType;
+            spec = pSpec;
+            caseSensitive = pCaseSensitive;
+            extensions = pExtensions;
+            pattern = pPattern;
+            referencedRules = pReferencedRules;
+        }
+
+
+
+        @Nonnull
+        public MdlContentSpecType getType()
+        {
+            return type;
+        }
+
+
+
+        @Nonnull
+        public String getSpec()
+        {
+            return spec;
+        }
+
+
+
+        public boolean isCaseSensitive()
+        {
+            return caseSensitive;
+        }
+
+
+
+        /**
+         * Determine if one of the given file extensions is matched by this <code>FileExtensions</code> rule.
+         *
+         * @param pFileExtensions the file extensions of a file
+         * @return <code>true</code> if at least one of the extensions is matched
+         */
+        public boolean matchesExtension(@Nonnull final Set<String> pFileExtensions)
+        {
+            for (final String ext : pFileExtensions) {
+                if (extensions.contains(caseSensitive ? ext : Util.foldCase(ext))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+
+
+        @Nonnull
+        public Pattern getPattern()
+        {
+            return pattern;
+        }
+
+
+
+        @Nonnull
+        public List<Rule> getReferencedRules()
+        {
+            return referencedRules;
+        }
+    }
+
+
+
+    /**
+     * The compiled rules of one MDL path. The allow and deny lists are each split into the rules which depend only on
+     * the folders of a file's specific path, and the rules which also depend on the file name. <code>FromPath</code>
+     * references are resolved into the deny lists.
+     */
+    @Immutable
+    static final class PathRules
+    {
+        private final Pattern modules;
+
+        private final boolean allowListActive;
+
+        private final List<Rule> allowFolderRules;
+
+        private final List<Rule> allowFileRules;
+
+        private final List<Rule> denyFolderRules;
+
+        private final List<Rule> denyFileRules;
+
+        /** the top-level folders specified in the allow list, which may not occur again further down the path */
+        private final List<String> topLevelFolders;
+
+
+
+        private PathRules(@Nullable final Pattern pModules, @Nonnull final List<Rule> pAllow,
+            @Nonnull final List<Rule> pDeny, @Nonnull final List<String> pTopLevelFolders)
+        {
+            modules = pModules;
+            allowListActive = !pAllow.isEmpty();
+            final List<Rule> allowFolders = new ArrayList<>();
+            final List<Rule> allowFiles = new ArrayList<>();
+            partition(pAllow, allowFolders, allowFiles);
+            allowFolderRules = Collections.unmodifiableList(allowFolders);
+            allowFileRules = Collections.unmodifiableList(allowFiles);
+            final List<Rule> denyFolders = new ArrayList<>();
+            final List<Rule> denyFiles = new ArrayList<>();
+            partition(pDeny, denyFolders, denyFiles);
+            denyFolderRules = Collections.unmodifiableList(denyFolders);
+            denyFileRules = Collections.unmodifiableList(denyFiles);
+            topLevelFolders = pTopLevelFolders;
+        }
+
+
+
+        private static void partition(@Nonnull final List<Rule> pRules, @Nonnull final List<Rule> pFolderRules,
+            @Nonnull final List<Rule> pFileRules)
+        {
+            for (final Rule rule : pRules) {
+                switch (rule.getType()) {
+                    case TopLevelFolder: // fall through
+                    case SimpleFolder:
+                        pFolderRules.add(rule);
+                        break;
+                    case FromPath:
+                        partition(rule.getReferencedRules(), pFolderRules, pFileRules);
+                        break;
+                    default:
+                        pFileRules.add(rule);
+                        break;
+                }
+            }
+        }
+
+
+
+        /**
+         * Getter.
+         *
+         * @return the compiled <code>modules</code> regex, or <code>null</code> if the MDL path is allowed in all
+         *     modules
+         */
+        @CheckForNull
+        public Pattern getModules()
+        {
+            return modules;
+        }
+
+
+
+        /**
+         * Getter.
+         *
+         * @return <code>true</code> if the MDL spec is a whitelist with a non-empty allow list
+         */
+        public boolean isAllowListActive()
+        {
+            return allowListActive;
+        }
+
+
+
+        @Nonnull
+        public List<Rule> getAllowFolderRules()
+        {
+            return allowFolderRules;
+        }
+
+
+
+        @Nonnull
+        public List<Rule> getAllowFileRules()
+        {
+            return allowFileRules;
+        }
+
+
+
+        @Nonnull
+        public List<Rule> getDenyFolderRules()
+        {
+            return denyFolderRules;
+        }
+
+
+
+        @Nonnull
+        public List<Rule> getDenyFileRules()
+        {
+            return denyFileRules;
+        }
+
+
+
+        @Nonnull
+        public List<String> getTopLevelFolders()
+        {
+            return topLevelFolders;
+        }
+    }
+
+
+
+    /**
+     * A node in the segment trie of MDL paths. Each edge represents one folder name.
+     */
+    private static final class TrieNode
+    {
+        /** Map from folder name to child node */
+        private final Map<String, TrieNode> children = new HashMap<>();
+
+        /** the MDL path ending at this node, or <code>null</code> if no MDL path ends here */
+        private String mdlPath = null;
+    }
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pJsonConfig the configuration, which must have been successfully validated
+     */
+    MdlRules(@Nonnull final MdlJsonConfig pJsonConfig)
+    {
+        final Map<String, MdlJsonConfig.MdlSpec> structure = pJsonConfig.getStructure();
+        final Map<String, PathRules> map = new HashMap<>();
+        for (final Map.Entry<String, MdlJsonConfig.MdlSpec> entry : structure.entrySet()) {
+            final MdlJsonConfig.MdlSpec mdlSpec = entry.getValue();
+
+            List<Rule> allow = Collections.emptyList();
+            if (mdlSpec.isWhitelist()) {
+                allow = compileList(structure, mdlSpec.getAllow(), SpecListType.Allow);
+            }
+            final List<Rule> deny = compileList(structure, mdlSpec.getDeny(), SpecListType.Deny);
+
+            final List<String> topLevelFolders = new ArrayList<>();
+            if (mdlSpec.getAllow() != null) {
+                for (final MdlJsonConfig.SpecElement se : mdlSpec.getAllow()) {
+                    if (se.getType() == MdlContentSpecType.TopLevelFolder) {
+                        topLevelFolders.add(se.getSpec());
+                    }
+                }
+            }
+
+            map.put(entry.getKey(), new PathRules(mdlSpec.getModules(), allow, deny,
+                Collections.unmodifiableList(topLevelFolders)));
+        }
+        pathRules = Collections.unmodifiableMap(map);
+
+        for (final String mdlPath : structure.keySet()) {
+            TrieNode node = mdlPathTrie;
+            for (final String folder : Util.standardizeSlashes(mdlPath).split(Pattern.quote(File.separator), -1)) {
+                TrieNode child = node.children.get(folder);
+                if (child == null) {
+                    child = new TrieNode();
+                    node.children.put(folder, child);
+                }
+                node = child;
+            }
+            if (node.mdlPath == null) {
+                node.mdlPath = mdlPath;
+            }
+        }
+    }
+
+
+
+    @Nonnull
+    private static List<Rule> compileList(@Nonnull final Map<String, MdlJsonConfig.MdlSpec> pStructure,
+        @Nullable final List<MdlJsonConfig.SpecElement> pSpecList, @Nonnull final SpecListType pListType)
+    {
+        if (pSpecList == null || pSpecList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Rule> result = new ArrayList<>(pSpecList.size());
+        for (final MdlJsonConfig.SpecElement se : pSpecList) {
+            result.add(compileRule(pStructure, se, pListType));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+
+
+    @Nonnull
+    private static Rule compileRule(@Nonnull final Map<String, MdlJsonConfig.MdlSpec> pStructure,
+        @Nonnull final MdlJsonConfig.SpecElement pSpecElement, @Nonnull final SpecListType pListType)
+    {
+        final boolean caseSensitive = pListType.isCaseSensitive();
+        final String spec = pSpecElement.getSpec();
+        Set<String> extensions = null;
+        Pattern pattern = null;
+        List<Rule> referencedRules = null;
+
+        switch (pSpecElement.getType()) {
+            case FileExtensions:
+                extensions = new HashSet<>();
+                for (final String ext : spec.split("\\s*,\\s*")) {
+                    extensions.add(caseSensitive ? ext : Util.foldCase(ext));
+                }
+                extensions = Collections.unmodifiableSet(extensions);
+                break;
+
+            case SpecificPathRegex:
+                pattern = Pattern.compile(spec);
+                break;
+
+            case FromPath:
+                // only possible in deny lists; the referenced allow list cannot contain further references
+                referencedRules = compileList(pStructure, pStructure.get(spec).getAllow(), pListType);
+                break;
+
+            default:
+                // no preparations necessary
+                break;
+        }
+        return new Rule(pSpecElement.getType(), spec, caseSensitive, extensions, pattern, referencedRules);
+    }
+
+
+
+    /**
+     * Getter.
+     *
+     * @param pMdlPath an MDL path from the configuration
+     * @return the rules for the MDL path, or <code>null</code> if the MDL path is not configured
+     */
+    @CheckForNull
+    PathRules getPathRules(@Nonnull final String pMdlPath)
+    {
+        return pathRules.get(pMdlPath);
+    }
+
+
+
+    /**
+     * Find the MDL path which the given path starts with. The path must continue with a slash or backslash after the
+     * MDL path. MDL paths may not be nested, so there is at most one such MDL path. The search takes time proportional
+     * to the number of folders on the path, not to the number of MDL paths.
+     *
+     * @param pPath a path relative to the module directory, using the platform's separator characters
+     * @return the MDL path as given in the configuration, or <code>null</code> if there is no such MDL path
+     */
+    @CheckForNull
+    String findMdlPath(@Nonnull final String pPath)
+    {
+        TrieNode node = mdlPathTrie;
+        int pos = 0;
+        while (pos < pPath.length()) {
+            final int end = indexOfSlash(pPath, pos);
+            if (end < 0) {
+                break;
+            }
+            node = node.children.get(pPath.substring(pos, end));
+            if (node == null) {
+                break;
+            }
+            if (node.mdlPath != null) {
+                return node.mdlPath;
+            }
+            if (pPath.charAt(end) != File.separatorChar) {
+                break;
+            }
+            pos = end + 1;
+        }
+        return null;
+    }
+
+
+
+    private static int indexOfSlash(@Nonnull final String pPath, final int pFromIndex)
+    {
+        for (int i = pFromIndex; i < pPath.length(); i++) {
+            final char c = pPath.charAt(i);
+            if (c == '/' || c == '\\') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
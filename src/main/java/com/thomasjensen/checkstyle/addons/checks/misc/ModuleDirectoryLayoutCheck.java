@@ -16,24 +16,21 @@ package com.thomasjensen.checkstyle.addons.checks.misc;
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.Map;
 import java.util.regex.Pattern;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 
@@ -51,45 +48,83 @@ public class ModuleDirectoryLayoutCheck
 {
     private static final String DEFAULT_CONFIG_FILENAME = "ModuleDirectoryLayout-default.json";
 
-    /** matches the file extension in a pathname in its capturing group */
-    private static final Pattern FILE_EXTENSION = Pattern.compile("\\.([^\\\\/]+)$");
-
     private static final Pattern SINGLE_MODULE_PROJECT = Pattern.compile("");
 
+    private static final String MSG_ILLEGAL_CONTENT = "moduledirectorylayout.illegalcontent";
+
+    private static final String MSG_ILLEGAL_CONTENT_AGGREGATED = "moduledirectorylayout.illegalcontent.aggregated";
+
+    private static final int DEFAULT_MAX_SAMPLE_FILES = 5;
+
+    /** reader for the JSON configuration files; immutable and thread-safe, so it can be shared */
+    private static final ObjectReader CONFIG_READER = new ObjectMapper().readerFor(MdlJsonConfig.class);
+
     /** the base directory to be assumed for this check, usually the project's root directory */
     private File baseDir = Util.canonize(new File("."));
 
     private boolean failQuietly = false;
 
+    /** additionally report a summary of the illegal content of each folder, at the end of the run */
+    private boolean aggregateIllegalContent = false;
+
+    /** the maximum number of file names listed in an aggregated illegal content violation */
+    private int maxSampleFiles = DEFAULT_MAX_SAMPLE_FILES;
+
     private CallableNoEx<MdlConfig> mdlConfigCallable;
 
+    /** the configuration of the current run, obtained from the {@link MdlConfigCache} */
     private MdlConfig mdlConfigCache = null;
 
+    /** applies the configuration to the checked files; reset with each run, because it caches directory verdicts */
+    private MdlPathValidator validator = null;
+
+    /** the file currently being processed */
+    private File currentFile = null;
 
+    /** the canonical path of {@link #currentFile} */
+    private String currentFilePath = null;
 
-    /** SpecLists can be allow or deny lists. */
-    private enum SpecListType
+    /** Map from canonical folder path to the illegal content found in that folder during the current run */
+    private final Map<String, IllegalContentSummary> illegalContent = new LinkedHashMap<>();
+
+    private final MdlPathValidator.Reporter reporter = new MdlPathValidator.Reporter()
     {
-        Allow(true),
+        @Override
+        public void report(@Nonnull final String pMessageKey, @Nonnull final Object... pArgs)
+        {
+            log(1, pMessageKey, pArgs);
+            if (aggregateIllegalContent && MSG_ILLEGAL_CONTENT.equals(pMessageKey)) {
+                collectIllegalContent((String) pArgs[0], (String) pArgs[1]);
+            }
+        }
+    };
 
-        Deny(false);
 
-        //
 
-        private final boolean caseSensitive;
+    /**
+     * The illegal content found in one folder. The folder determines module, MDL path, and specific folders.
+     */
+    private static final class IllegalContentSummary
+    {
+        /** the file on which the summary is reported, which is the first illegal file found */
+        private final File firstFile;
 
+        private final String mdlPath;
 
+        private final String firstSpecificPath;
 
-        private SpecListType(final boolean pCaseSensitive)
-        {
-            caseSensitive = pCaseSensitive;
-        }
+        private final List<String> sampleFiles = new ArrayList<>();
 
+        private int count = 0;
 
 
-        public boolean isCaseSensitive()
+
+        IllegalContentSummary(@Nonnull final File pFirstFile, @Nonnull final String pMdlPath,
+            @Nonnull final String pFirstSpecificPath)
         {
-            return caseSensitive;
+            firstFile = pFirstFile;
+            mdlPath = pMdlPath;
+            firstSpecificPath = pFirstSpecificPath;
         }
     }
 
@@ -108,16 +143,7 @@ public class ModuleDirectoryLayoutCheck
             @Nonnull
             public MdlConfig call()
             {
-                MdlConfig result = null;
-                InputStream is = null;
-                try {
-                    is = ModuleDirectoryLayoutCheck.class.getResourceAsStream(DEFAULT_CONFIG_FILENAME);
-                    result = activateConfigFile(is, DEFAULT_CONFIG_FILENAME);
-                }
-                finally {
-                    Util.closeQuietly(is);
-                }
-                return result;
+                return MdlConfigCache.getInstance().getDefaultConfig();
             }
         };
     }
@@ -129,175 +155,84 @@ public class ModuleDirectoryLayoutCheck
     {
         super.beginProcessing(pCharset);
         mdlConfigCache = null;
+        validator = null;
+        illegalContent.clear();
     }
 
 
 
     protected void processFiltered(final File pFile, final List<String> pLines)
     {
-        final MdlConfig wrapper = getMdlConfig();
-        final MdlJsonConfig mdlConfig = wrapper.getJson();
-        if (mdlConfig != null) {
-            final String filePath = Util.canonize(pFile).getPath();
-            final DecomposedPath decomposedPath = decomposePath(wrapper, filePath);
-            if (decomposedPath != null) {
-                MdlJsonConfig.MdlSpec mdlSpec = mdlConfig.getStructure().get(decomposedPath.getMdlPath());
-
-                if (!mdlConfig.getSettings().isAllowNestedSrcFolder() && decomposedPath.getSpecificFolders().contains(
-                    "src")) {
-                    log(1, "moduledirectorylayout.nestedsrcfolder", decomposedPath.getSpecificPath());
-                }
-
-                else if (!isMdlAllowedForModule(mdlSpec, decomposedPath)) {
-                    log(1, "moduledirectorylayout.notinthismodule", decomposedPath.getMdlPath(),
-                        decomposedPath.getModulePath());
-                }
-
-                else if (!isSpecificPathAllowedInMdl(mdlConfig, mdlSpec, decomposedPath)
-                    || !isAllowListPostProcessingOk(mdlSpec.getAllow(), decomposedPath)) {
-                    log(1, "moduledirectorylayout.illegalcontent", decomposedPath.getMdlPath(),
-                        decomposedPath.getSpecificPath());
-                }
-            }
-        }
-    }
-
-
-
-    protected void processFiltered(final File pFile, final FileText pLines)
-    {
-        processFiltered(pFile, Collections.<String>emptyList());
-    }
-
-
-
-    private boolean isAllowListPostProcessingOk(@Nullable final List<MdlJsonConfig.SpecElement> pAllowList,
-        @Nonnull final DecomposedPath pDecomposedPath)
-    {
-        boolean ok = true;
-        if (pAllowList != null && pAllowList.size() > 0) {
-            for (final MdlJsonConfig.SpecElement se : pAllowList) {
-                if (se.getType() == MdlContentSpecType.TopLevelFolder) {
-                    ok = isTopLevelFolderNestingOk(se.getSpec(), pDecomposedPath.getSpecificFolders());
-                    if (!ok) {
-                        break;
-                    }
-                }
-            }
+        final MdlConfig mdlConfig = getMdlConfig();
+        if (mdlConfig.getJson() != null) {
+            currentFile = pFile;
+            currentFilePath = Util.canonize(pFile).getPath();
+            getValidator(mdlConfig).validate(currentFilePath, reporter);
         }
-        return ok;
     }
 
 
 
-    private boolean checkTopLevelFolder(@Nonnull final String pTopLevelFolder,
-        @Nonnull final List<String> pSpecificFolders, final boolean pCaseSensitive)
+    private void collectIllegalContent(@Nonnull final String pMdlPath, @Nonnull final String pSpecificPath)
     {
-        boolean ok = true;
-        if (pSpecificFolders.size() > 0) {
-            ok = Util.stringEquals(pSpecificFolders.get(0), pTopLevelFolder, pCaseSensitive)
-                && isTopLevelFolderNestingOk(pTopLevelFolder, pSpecificFolders);
+        final String folderKey = currentFilePath.substring(0, currentFilePath.lastIndexOf(File.separatorChar) + 1);
+        IllegalContentSummary summary = illegalContent.get(folderKey);
+        if (summary == null) {
+            summary = new IllegalContentSummary(currentFile, pMdlPath, pSpecificPath);
+            illegalContent.put(folderKey, summary);
         }
-
-        return ok;
-    }
-
-
-
-    private boolean isTopLevelFolderNestingOk(@Nonnull final String pTopLevelFolder,
-        @Nonnull final List<String> pSpecificFolders)
-    {
-        boolean ok = true;
-        if (pSpecificFolders.size() > 1) {
-            ok = !Util.containsString(pSpecificFolders.subList(1, pSpecificFolders.size()), pTopLevelFolder,
-                false); // never case sensitive
+        summary.count++;
+        if (summary.sampleFiles.size() < maxSampleFiles) {
+            summary.sampleFiles.add(pSpecificPath.substring(pSpecificPath.lastIndexOf(File.separatorChar) + 1));
         }
-        return ok;
     }
 
 
 
-    private boolean isSpecificPathAllowedInMdl(@Nonnull final MdlJsonConfig pJsonConfig,
-        @Nonnull final MdlJsonConfig.MdlSpec pMdlSpec, @Nonnull final DecomposedPath pDecomposedPath)
+    @Override
+    public void finishProcessing()
     {
-        boolean allowed = true;
-        boolean denied = false;
-        if (pMdlSpec.isWhitelist() && pMdlSpec.getAllow() != null && !pMdlSpec.getAllow().isEmpty()) {
-            allowed = processSpecList(pJsonConfig, pMdlSpec.getAllow(), pDecomposedPath, SpecListType.Allow);
-        }
-        if (pMdlSpec.getDeny() != null && !pMdlSpec.getDeny().isEmpty()) {
-            denied = processSpecList(pJsonConfig, pMdlSpec.getDeny(), pDecomposedPath, SpecListType.Deny);
+        // Every file has already been reported individually. The summary goes on top, attached to the first file,
+        // which therefore also never ends up in the cache.
+        for (final IllegalContentSummary summary : illegalContent.values()) {
+            if (summary.count > 1) {
+                final int lastSep = summary.firstSpecificPath.lastIndexOf(File.separatorChar);
+                final String folder = lastSep > 0 ? summary.firstSpecificPath.substring(0, lastSep) : ".";
+                final StringBuilder samples = new StringBuilder();
+                for (final String sampleFile : summary.sampleFiles) {
+                    samples.append(sampleFile).append(", ");
+                }
+                if (summary.count > summary.sampleFiles.size()) {
+                    samples.append("...");
+                }
+                else {
+                    samples.setLength(samples.length() - 2);
+                }
+                log(1, MSG_ILLEGAL_CONTENT_AGGREGATED, summary.mdlPath, folder, Integer.valueOf(summary.count),
+                    samples.toString());
+                fireErrors(summary.firstFile.getAbsolutePath());
+            }
         }
-        return allowed && !denied;
+        illegalContent.clear();
+        super.finishProcessing();
     }
 
 
 
-    private boolean isMdlAllowedForModule(@Nonnull final MdlJsonConfig.MdlSpec pMdlSpec,
-        @Nonnull final DecomposedPath pDecomposedPath)
+    protected void processFiltered(final File pFile, final FileText pLines)
     {
-        return pDecomposedPath.getModulePath().isEmpty() || pMdlSpec.getModules() == null || pMdlSpec.getModules()
-            .matcher(pDecomposedPath.getModulePath()).find();
+        processFiltered(pFile, Collections.<String>emptyList());
     }
 
 
 
-    private boolean processSpecList(@Nonnull final MdlJsonConfig pJsonConfig,
-        @Nullable final List<MdlJsonConfig.SpecElement> pSpecList, @Nonnull final DecomposedPath pDecomposedPath,
-        @Nonnull final SpecListType pListType)
+    @Nonnull
+    private MdlPathValidator getValidator(@Nonnull final MdlConfig pMdlConfig)
     {
-        boolean match = false;
-        if (pSpecList != null) {
-            for (final MdlJsonConfig.SpecElement se : pSpecList) {
-                switch (se.getType()) {
-
-                    case FileExtensions:
-                        for (final String allowedExtension : se.getSpec().split("\\s*,\\s*")) {
-                            if (Util.containsString(pDecomposedPath.getFileExtensions(), allowedExtension,
-                                pListType.isCaseSensitive())) {
-                                match = true;
-                                break;
-                            }
-                        }
-                        break;
-
-                    case TopLevelFolder:
-                        if (pListType == SpecListType.Allow) {
-                            match = checkTopLevelFolder(se.getSpec(), pDecomposedPath.getSpecificFolders(),
-                                pListType.isCaseSensitive());
-                            break;
-                        }
-                        // fall through
-
-                    case SimpleFolder:
-                        match = Util.containsString(pDecomposedPath.getSpecificFolders(), se.getSpec(),
-                            pListType.isCaseSensitive());
-                        break;
-
-                    case SimpleName:
-                        match = Util.stringEquals(pDecomposedPath.getSimpleFilename(), se.getSpec(),
-                            pListType.isCaseSensitive());
-                        break;
-
-                    case SpecificPathRegex:
-                        match = Pattern.compile(se.getSpec()).matcher(pDecomposedPath.getSpecificPath()).find();
-                        break;
-
-                    case FromPath:
-                        // only possible in deny lists
-                        match = processSpecList(pJsonConfig, pJsonConfig.getStructure().get(se.getSpec()).getAllow(),
-                            pDecomposedPath, pListType);
-                        break;
-
-                    default:
-                        throw new IllegalStateException("Unexpected enum constant: " + se.getType());
-                }
-                if (match) {
-                    break;
-                }
-            }
+        if (validator == null || validator.getMdlConfig() != pMdlConfig) {
+            validator = new MdlPathValidator(baseDir, pMdlConfig);
         }
-        return match;
+        return validator;
     }
 
 
@@ -305,75 +240,7 @@ public class ModuleDirectoryLayoutCheck
     @CheckForNull
     DecomposedPath decomposePath(@Nonnull final MdlConfig pMdlConfig, @Nonnull final String pFilePath)
     {
-        final MdlJsonConfig mdlConfig = pMdlConfig.getJson();
-        final Pattern moduleRegexp = pMdlConfig.getModuleRegex();
-        String modulePath = "";
-        String mdlPath = null;
-        String specificPath = null;
-        String simpleFilename = null;
-        Set<String> fileExtensions = new HashSet<>();
-        List<String> specificFolders = new ArrayList<>();
-
-        if (!pFilePath.startsWith(baseDir.getPath())) {
-            return null;
-        }
-        String filePath = cutSlashes(pFilePath.substring(baseDir.getPath().length()));
-
-        if (pMdlConfig.getExcludeRegex().matcher(filePath).find()) {
-            return null;   // the file path is excluded from checking
-        }
-
-        if (moduleRegexp.pattern().length() > 0) {
-            final Matcher matcher = moduleRegexp.matcher(filePath);
-            if (matcher.find() && matcher.start() == 0) {
-                modulePath = cutSlashes(matcher.group(0));
-            }
-            else if (filePath.contains("\\") || filePath.contains("/")) {     // no error if file is in baseDir
-                log(1, "moduledirectorylayout.invalid.module", filePath, moduleRegexp.pattern());
-                return null;
-            }
-        }
-        if (modulePath.length() > 0) {
-            filePath = cutSlashes(filePath.substring(modulePath.length()));
-        }
-
-        for (final String mdlPathCandidate : mdlConfig.getStructure().keySet()) {
-            if (mdlPathCandidate.length() < filePath.length() //
-                && filePath.startsWith(Util.standardizeSlashes(mdlPathCandidate)) //
-                && "/\\".indexOf(filePath.charAt(mdlPathCandidate.length())) >= 0) //
-            {
-                mdlPath = mdlPathCandidate;
-                filePath = cutSlashes(filePath.substring(mdlPathCandidate.length()));
-                break;
-            }
-        }
-        if (mdlPath == null) {
-            if (filePath.indexOf(File.separatorChar) > 0) {   // no error if file is in module root
-                log(1, "moduledirectorylayout.invalid.mdlpath", filePath);
-            }
-            return null;
-        }
-
-        specificPath = filePath;
-
-        Matcher matcher = FILE_EXTENSION.matcher(filePath);
-        if (matcher.find()) {
-            String ext = matcher.group(1);
-            for (int d = ext.lastIndexOf('.'); d > 0; d = ext.lastIndexOf('.', d - 1)) {
-                fileExtensions.add(ext.substring(d + 1));
-            }
-            fileExtensions.add(ext);
-        }
-
-        int lastSlash = filePath.lastIndexOf(File.separatorChar);
-        simpleFilename = filePath.substring(lastSlash + 1);
-
-        String[] fragments = filePath.split("[\\\\/]");
-        specificFolders.addAll(Arrays.asList(fragments).subList(0, fragments.length - 1));
-
-        DecomposedPath result = new DecomposedPath(modulePath, mdlPath, specificPath, simpleFilename, fileExtensions,
-            specificFolders);
-        return result;
+        return getValidator(pMdlConfig).decomposePath(pFilePath, reporter);
     }
 
 
@@ -381,22 +248,7 @@ public class ModuleDirectoryLayoutCheck
     @Nonnull
     String cutSlashes(@Nonnull final String pPath)
     {
-        String result = pPath;
-        if (pPath.length() > 0) {
-            boolean leadingSlash = false;
-            if (pPath.charAt(0) == '\\' || pPath.charAt(0) == '/') {
-                leadingSlash = true;
-            }
-            boolean trailingSlash = false;
-            if (pPath.length() > 1 && (pPath.charAt(pPath.length() - 1) == '\\' || pPath.charAt(pPath.length() - 1)
-                == '/')) {
-                trailingSlash = true;
-            }
-            if (leadingSlash || trailingSlash) {
-                result = pPath.substring(leadingSlash ? 1 : 0, pPath.length() - (trailingSlash ? 1 : 0));
-            }
-        }
-        return result;
+        return MdlPathValidator.cutSlashes(pPath);
     }
 
 
@@ -404,10 +256,12 @@ public class ModuleDirectoryLayoutCheck
     public void setBaseDir(final String pBaseDir)
     {
         baseDir = Util.canonize(new File(pBaseDir));
+        validator = null;
     }
 
 
 
+
     /**
      * Setter.
      *
@@ -415,6 +269,7 @@ public class ModuleDirectoryLayoutCheck
      */
     public final void setConfigFile(@Nonnull final String pConfigFile)
     {
+        validator = null;
         mdlConfigCallable = new CallableNoEx<MdlConfig>()
         {
             @Override
@@ -422,10 +277,8 @@ public class ModuleDirectoryLayoutCheck
             public MdlConfig call()
             {
                 MdlConfig result = null;
-                FileInputStream fis = null;
                 try {
-                    fis = new FileInputStream(Util.canonize(new File(pConfigFile)));
-                    result = activateConfigFile(fis, pConfigFile);
+                    result = MdlConfigCache.getInstance().get(pConfigFile);
                 }
                 catch (IllegalArgumentException e) {
                     result = activateConfigFile(null, null);
@@ -439,9 +292,6 @@ public class ModuleDirectoryLayoutCheck
                                 + pConfigFile, e);
                     }
                 }
-                finally {
-                    Util.closeQuietly(fis);
-                }
                 return result;
             }
         };
@@ -456,8 +306,44 @@ public class ModuleDirectoryLayoutCheck
 
 
 
+    public void setAggregateIllegalContent(final boolean pAggregateIllegalContent)
+    {
+        aggregateIllegalContent = pAggregateIllegalContent;
+    }
+
+
+
+    public void setMaxSampleFiles(final int pMaxSampleFiles)
+    {
+        maxSampleFiles = pMaxSampleFiles;
+    }
+
+
+
+    /**
+     * Load the default configuration which is bundled with this check.
+     *
+     * @return the default configuration
+     */
+    @Nonnull
+    static MdlConfig loadDefaultConfig()
+    {
+        MdlConfig result = null;
+        InputStream is = null;
+        try {
+            is = ModuleDirectoryLayoutCheck.class.getResourceAsStream(DEFAULT_CONFIG_FILENAME);
+            result = activateConfigFile(is, DEFAULT_CONFIG_FILENAME);
+        }
+        finally {
+            Util.closeQuietly(is);
+        }
+        return result;
+    }
+
+
+
     @Nonnull
-    private MdlConfig activateConfigFile(@Nullable final InputStream pInputStream, @Nullable final String pFilename)
+    static MdlConfig activateConfigFile(@Nullable final InputStream pInputStream, @Nullable final String pFilename)
     {
         MdlConfig result = new MdlConfig(null, SINGLE_MODULE_PROJECT, Util.NEVER_MATCH);
         if (pInputStream != null) {
@@ -494,10 +380,7 @@ public class ModuleDirectoryLayoutCheck
     static MdlJsonConfig readConfigFile(@Nonnull final InputStream pInputStream)
         throws IOException
     {
-        final byte[] fileContents = Util.readBytes(pInputStream);
-        final String json = new String(fileContents, StandardCharsets.UTF_8);
-        final MdlJsonConfig result = new ObjectMapper().readValue(json, MdlJsonConfig.class);
-        return result;
+        return CONFIG_READER.readValue(pInputStream);
     }
 
 
@@ -510,4 +393,4 @@ public class ModuleDirectoryLayoutCheck
         }
         return mdlConfigCache;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import com.thomasjensen.checkstyle.addons.util.AbstractPathScanner;
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+// @formatter:off
+/**
+ * Applies the rules of the {@link ModuleDirectoryLayoutCheck} to a directory tree or to a list of files, without
+ * going through Checkstyle. Only the file paths are inspected, so no file is ever opened. This is much faster than
+ * running the check on large trees of binary files or resources.
+ * <p>Call from command line: <code>java -cp checkstyle-addons-x.x.x-all.jar;checkstyle-7.0-all.jar
+ * com.thomasjensen.checkstyle.addons.checks.misc.ModuleDirectoryLayoutScanner path/to/baseDir
+ * [path/to/my-directories.json]</code></p>
+ */ // @formatter:on
+@NotThreadSafe
+public final class ModuleDirectoryLayoutScanner
+    extends AbstractPathScanner
+{
+    private static final String BUNDLE_NAME = ModuleDirectoryLayoutScanner.class.getPackage().getName()
+        + ".messages";
+
+    private final MdlPathValidator validator;
+
+    private final MdlPathValidator.Reporter reporter = new MdlPathValidator.Reporter()
+    {
+        @Override
+        public void report(@Nonnull final String pMessageKey, @Nonnull final Object... pArgs)
+        {
+            reportViolation(pMessageKey, pArgs);
+        }
+    };
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pBaseDir the base directory, usually the project's root directory
+     * @param pConfigFile the JSON configuration file, or <code>null</code> to use the default configuration
+     * @throws IOException the configuration file could not be read
+     * @throws IllegalArgumentException the configuration file is invalid
+     */
+    public ModuleDirectoryLayoutScanner(@Nonnull final File pBaseDir, @Nullable final File pConfigFile)
+        throws IOException
+    {
+        super("ModuleDirectoryLayout", BUNDLE_NAME);
+        MdlConfig mdlConfig = null;
+        if (pConfigFile != null) {
+            mdlConfig = MdlConfigCache.getInstance().get(pConfigFile.getPath());
+        }
+        else {
+            mdlConfig = MdlConfigCache.getInstance().getDefaultConfig();
+        }
+        validator = new MdlPathValidator(Util.canonize(pBaseDir), mdlConfig);
+    }
+
+
+
+    @Override
+    protected void check(@Nonnull final File pFile, final boolean pCanonical)
+    {
+        validator.validate((pCanonical ? pFile : Util.canonize(pFile)).getPath(), reporter);
+    }
+
+
+
+    /**
+     * Directories whose contents are excluded by the <code>excludeRegex</code> as a whole are skipped.
+     *
+     * @param pDirPath the canonical path of the directory
+     * @return <code>true</code> if the directory tree is excluded
+     */
+    @Override
+    protected boolean isExcludedDirectory(@Nonnull final String pDirPath)
+    {
+        return validator.isExcludedDirectory(pDirPath);
+    }
+
+
+
+    /**
+     * Main.
+     *
+     * @param pArgs command-line arguments: the base directory, and optionally the JSON configuration file
+     */
+    public static void main(@Nonnull final String[] pArgs)
+    {
+        if (pArgs.length == 0) {
+            exitWithUsage("ModuleDirectoryLayoutScanner <base directory> [<config file>]");
+        }
+
+        final File baseDir = Util.canonize(new File(pArgs[0]));
+        runFromCommandLine(new Factory()
+        {
+            @Override
+            @Nonnull
+            public AbstractPathScanner create()
+                throws IOException
+            {
+                return new ModuleDirectoryLayoutScanner(baseDir, pArgs.length > 1 ? new File(pArgs[1]) : null);
+            }
+        }, baseDir.getPath());
+    }
+}
@@ -15,23 +15,19 @@ package com.thomasjensen.checkstyle.addons.checks.misc;
  * program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -42,6 +38,7 @@ import javax.annotation.Nullable;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import net.jcip.annotations.Immutable;
 
 import com.thomasjensen.checkstyle.addons.checks.AbstractAddonsCheck;
 import com.thomasjensen.checkstyle.addons.checks.BinaryName;
@@ -73,6 +70,30 @@ public class PropertyCatalogCheck
     /** Maximum number of directory levels that may exist between the base directory and an individual module root */
     static final int NUM_SUBDIRS = 3;
 
+    /**
+     * Cache of property file lookups, keyed by binary class name and the location of the analyzed file. Positive and
+     * negative results are kept until the next audit, because property files may be created or deleted in between.
+     */
+    private final Map<String, PropertyFileLocation> propertyFileLocations = new HashMap<>();
+
+    /** Map from absolute path of a candidate property file to its readability, valid during the current audit */
+    private final Map<String, Boolean> fileReadability = new HashMap<>();
+
+    /**
+     * paths of the files analyzed in the current audit; a file is analyzed only once per audit, so analyzing it again
+     * means that a new audit has begun
+     */
+    private final Set<String> auditedFiles = new HashSet<>();
+
+    /** the first {@link #NUM_SUBDIRS} subdirectories on the path to the current file, determined once per tree */
+    private String[] currentSubdirs = null;
+
+    /**
+     * Map from absolute path of a property file to its keys prepared for lookup, so that case-insensitive keys are
+     * folded only once per property file
+     */
+    private final Map<String, PropertyKeySet> propertyKeySets = new HashMap<>();
+
     /*
      * --------------- Check properties: ---------------------------------------------------------------------------
      */
@@ -99,6 +120,9 @@ public class PropertyCatalogCheck
     /** template for the property file path */
     private String propertyFileTemplate = "";
 
+    /** the compiled form of {@link #propertyFileTemplate} */
+    private PropertyFileTemplate compiledTemplate = new PropertyFileTemplate("");
+
     /** Character encoding of the property file */
     private Charset propertyFileEncoding = StandardCharsets.UTF_8;
 
@@ -111,6 +135,36 @@ public class PropertyCatalogCheck
     /** <code>true</code> if property keys should be case sensitive, <code>false</code> otherwise */
     private boolean caseSensitiveKeys = true;
 
+    /** directory where snapshots of parsed property files are kept across runs, or <code>null</code> for none */
+    private File cacheDir = null;
+
+    /**
+     * <code>true</code> if several catalogs may share one property file, so that orphans and duplicates across catalogs
+     * are reported by the {@link SharedPropertyCatalogCheck} at the end of the audit
+     */
+    private boolean sharedPropertyFiles = false;
+
+
+
+    /**
+     * The result of a property file lookup.
+     */
+    @Immutable
+    private static final class PropertyFileLocation
+    {
+        private final File file;
+
+        private final boolean readable;
+
+
+
+        PropertyFileLocation(@Nonnull final File pFile, final boolean pReadable)
+        {
+            file = pFile;
+            readable = pReadable;
+        }
+    }
+
 
 
     /**
@@ -145,6 +199,25 @@ public class PropertyCatalogCheck
         super.beginTree(pRootAst);
         catalogEntries.clear();
         skipType.clear();
+        currentSubdirs = null;
+        final File currentFile = getCurrentFile();
+        if (currentFile != null && !auditedFiles.add(currentFile.getPath())) {
+            beginAudit();
+            auditedFiles.add(currentFile.getPath());
+        }
+    }
+
+
+
+    /**
+     * Discard the property file lookups of the previous audit, so that property files which have been created or
+     * deleted since then are found or missed accordingly.
+     */
+    private void beginAudit()
+    {
+        auditedFiles.clear();
+        propertyFileLocations.clear();
+        fileReadability.clear();
     }
 
 
@@ -153,8 +226,8 @@ public class PropertyCatalogCheck
     protected void visitKnownType(@Nonnull final BinaryName pBinaryClassName, @Nonnull final DetailAST pAst)
     {
         catalogEntries.push(new TreeSet<CatalogEntry>());
-        boolean isExcludedFile = fileExludes.matcher(
-            Util.canonize(getApiFixer().getCurrentFileName()).getAbsolutePath()).find();
+        final File currentFile = getCurrentFile();
+        boolean isExcludedFile = currentFile != null && fileExludes.matcher(currentFile.getAbsolutePath()).find();
         boolean isPropertyCatalog = isPropertyCatalog(pBinaryClassName);
         skipType.push(Boolean.valueOf(!isPropertyCatalog || isExcludedFile));
     }
@@ -169,21 +242,26 @@ public class PropertyCatalogCheck
             return;
         }
 
-        Map<String, String> props = null;
-        final File propFile = findPropertyFile(pBinaryClassName);
-        if (propFile != null) {
+        PropertyKeySet props = null;
+        final String locationKey = buildLocationKey(pBinaryClassName);
+        final PropertyFileLocation location = findPropertyFile(pBinaryClassName, locationKey);
+        final File propFile = location.file;
+        if (location.readable) {
             props = loadPropertyFile(propFile);
+            if (props == null) {
+                forgetPropertyFile(locationKey, propFile);   // deleted since it was found, so look it up again
+            }
         }
 
         if (props == null) {
             final DetailAST classIdent = pAst.findFirstToken(TokenTypes.IDENT);
-            String absPath = propFile != null ? propFile.getAbsolutePath() : null;
+            String absPath = propFile.getAbsolutePath();
             String dynamicDirsAll = null;
 
             if (propertyFileTemplate.contains("{11}")) {
                 absPath = normalize(buildPropertyFilePath(pBinaryClassName, 0, false)).getAbsolutePath();
                 StringBuilder sb = new StringBuilder();
-                for (final String s : getFirstSubdirs(NUM_SUBDIRS)) {
+                for (final String s : getFirstSubdirs()) {
                     sb.append(s);
                     sb.append('/');
                 }
@@ -199,26 +277,55 @@ public class PropertyCatalogCheck
             return;
         }
 
-        checkCatalog(pAst, collectedEntries, props, propFile);
+        checkCatalog(pBinaryClassName, pAst, collectedEntries, props, propFile);
     }
 
 
 
-    @CheckForNull
-    private File findPropertyFile(@Nonnull final BinaryName pBinaryClassName)
+    @Nonnull
+    private String buildLocationKey(@Nonnull final BinaryName pBinaryClassName)
+    {
+        // The template placeholders depend only on the binary name, the directory of the analyzed file, and the
+        // subdirectories below the baseDir (which include the file name if the file is close to the baseDir).
+        final StringBuilder sb = new StringBuilder(pBinaryClassName.toString());
+        final File currentFile = getCurrentFile();
+        sb.append('|').append(currentFile != null ? currentFile.getParent() : null);
+        for (final String subdir : getFirstSubdirs()) {
+            sb.append('|').append(subdir);
+        }
+        return sb.toString();
+    }
+
+
+
+    @Nonnull
+    private PropertyFileLocation findPropertyFile(@Nonnull final BinaryName pBinaryClassName,
+        @Nonnull final String pLocationKey)
     {
-        File result = null;
-        for (int i = 0; i <= NUM_SUBDIRS; i++) {
-            result = normalize(buildPropertyFilePath(pBinaryClassName, i, true));
-            if (result.canRead()) {
-                break;
+        PropertyFileLocation result = propertyFileLocations.get(pLocationKey);
+        if (result == null) {
+            File file = null;
+            boolean readable = false;
+            for (int i = 0; i <= NUM_SUBDIRS && !readable; i++) {
+                file = normalize(buildPropertyFilePath(pBinaryClassName, i, true));
+                readable = isReadable(file);
             }
+            result = new PropertyFileLocation(file, readable);
+            propertyFileLocations.put(pLocationKey, result);
         }
         return result;
     }
 
 
 
+    private void forgetPropertyFile(@Nonnull final String pLocationKey, @Nonnull final File pPropFile)
+    {
+        propertyFileLocations.remove(pLocationKey);
+        fileReadability.remove(pPropFile.getAbsolutePath());
+    }
+
+
+
     private File normalize(@Nonnull final String pFilePath)
     {
         File result = new File(pFilePath);
@@ -230,14 +337,14 @@ public class PropertyCatalogCheck
 
 
 
-    private void checkCatalog(@Nonnull final DetailAST pTypeAst, @Nonnull final Set<CatalogEntry> pEntries,
-        @Nonnull final Map<String, String> pProps, @Nonnull final File pPropFile)
+    private void checkCatalog(@Nonnull final BinaryName pBinaryClassName, @Nonnull final DetailAST pTypeAst,
+        @Nonnull final Set<CatalogEntry> pEntries, @Nonnull final PropertyKeySet pProps,
+        @Nonnull final File pPropFile)
     {
-        final Map<String, CatalogEntry> foundKeys = new TreeMap<>(
-            caseSensitiveKeys ? null : String.CASE_INSENSITIVE_ORDER);
+        final Map<String, CatalogEntry> foundKeys = new HashMap<>();
 
         for (CatalogEntry entry : pEntries) {
-            if (pProps.get(entry.getKey()) == null) {
+            if (!pProps.contains(entry.getKey())) {
                 if (entry.getConstantName().equals(entry.getKey())) {
                     log(entry.getAst(), "propertycatalog.missing.property.short", entry.getKey(),
                         pPropFile.getAbsolutePath());
@@ -249,7 +356,8 @@ public class PropertyCatalogCheck
             }
 
             if (reportDuplicates || reportOrphans) {
-                final CatalogEntry duplicate = foundKeys.get(entry.getKey());
+                final String lookupKey = pProps.toLookupKey(entry.getKey());
+                final CatalogEntry duplicate = foundKeys.get(lookupKey);
                 if (duplicate != null) {
                     if (reportDuplicates) {
                         CatalogEntry first = entry;
@@ -263,25 +371,66 @@ public class PropertyCatalogCheck
                     }
                 }
                 else {
-                    foundKeys.put(entry.getKey(), entry);
+                    foundKeys.put(lookupKey, entry);
                 }
             }
         }
 
-        if (reportOrphans) {
+        final DetailAST classIdent = pTypeAst.findFirstToken(TokenTypes.IDENT);
+        final PropertyCatalogIndex index = sharedPropertyFiles ? PropertyCatalogIndex.getCurrent() : null;
+        if (index != null) {
+            registerSharedCatalog(index, pBinaryClassName, classIdent, pEntries, pProps, pPropFile);
+        }
+        else if (reportOrphans) {
             final Set<String> orphans = new TreeSet<>();    // The orphan list is always case sensitive.
-            for (String prop : pProps.keySet()) {
-                if (!foundKeys.containsKey(prop)) {
+            for (String prop : pProps.getKeys()) {
+                if (!foundKeys.containsKey(pProps.toLookupKey(prop))) {
                     orphans.add(prop);
                 }
             }
-            DetailAST classIdent = pTypeAst.findFirstToken(TokenTypes.IDENT);
-            if (orphans.size() == 1) {
-                log(classIdent, "propertycatalog.orphaned.property", orphans.iterator().next(), pPropFile);
-            }
-            else if (orphans.size() > 1) {
-                log(classIdent, "propertycatalog.orphaned.properties", orphans, pPropFile);
-            }
+            reportOrphans(classIdent, orphans, pPropFile);
+        }
+    }
+
+
+
+    /**
+     * Register the catalog with the index of the current audit, so that orphans and duplicates across all catalogs
+     * sharing the property file can be reported when the audit is complete.
+     *
+     * @param pIndex the index of the current audit
+     * @param pBinaryClassName the binary name of the catalog
+     * @param pClassIdent the identifier of the catalog type, on which orphans are reported
+     * @param pEntries the catalog entries
+     * @param pProps the keys of the property file
+     * @param pPropFile the property file
+     */
+    private void registerSharedCatalog(@Nonnull final PropertyCatalogIndex pIndex,
+        @Nonnull final BinaryName pBinaryClassName, @Nonnull final DetailAST pClassIdent,
+        @Nonnull final Set<CatalogEntry> pEntries, @Nonnull final PropertyKeySet pProps, @Nonnull final File pPropFile)
+    {
+        final List<PropertyCatalogIndex.Entry> entries = new ArrayList<>(pEntries.size());
+        for (final CatalogEntry entry : pEntries) {
+            entries.add(new PropertyCatalogIndex.Entry(entry.getConstantName(), entry.getKey(),
+                entry.getAst().getLineNo()));
+        }
+        final File currentFile = getCurrentFile();
+        final String sourceFile = currentFile != null ? currentFile.getPath() : "";
+        pIndex.register(Util.canonize(pPropFile).getPath(), pPropFile, pProps,
+            new PropertyCatalogIndex.Catalog(pBinaryClassName.toString(), sourceFile, pClassIdent.getLineNo(),
+                reportDuplicates, reportOrphans, entries));
+    }
+
+
+
+    private void reportOrphans(@Nonnull final DetailAST pClassIdent, @Nonnull final Set<String> pOrphans,
+        @Nonnull final File pPropFile)
+    {
+        if (pOrphans.size() == 1) {
+            log(pClassIdent, "propertycatalog.orphaned.property", pOrphans.iterator().next(), pPropFile);
+        }
+        else if (pOrphans.size() > 1) {
+            log(pClassIdent, "propertycatalog.orphaned.properties", pOrphans, pPropFile);
         }
     }
 
@@ -292,62 +441,100 @@ public class PropertyCatalogCheck
     String buildPropertyFilePath(@Nonnull final BinaryName pBinaryClassName, final int pSubDirLevel,
         final boolean pReplace11)
     {
-        final String bcn = pBinaryClassName.toString();
-
-        final String completePath = bcn.replace('.', '/').replace('$', '/');
-        final String outerFqcn = pBinaryClassName.getOuterFqcn();
-        final String outerFqcnPath = outerFqcn.replace('.', '/');
-        final String outerFqcnBackrefs = outerFqcnPath.replaceAll("[^/]+", "..");
-        final String outerSimpleName = pBinaryClassName.getOuterSimpleName();
-        final String innerSimpleName = pBinaryClassName.getInnerSimpleName();
-
-        final String pg = pBinaryClassName.getPackage();
-        final String pkgPath = pg != null ? pg.replace('.', '/') : "";
-        final String pathToClass = getPathToClass(pkgPath);
+        final String[] values = new String[PropertyFileTemplate.NUM_PLACEHOLDERS];
+        final PropertyFileTemplate template = compiledTemplate;
+        final String[] subdirs = getFirstSubdirs();
+        if (template.isUsed(0)) {
+            values[0] = pBinaryClassName.toString();
+        }
+        if (template.isUsed(1)) {
+            values[1] = pBinaryClassName.toString().replace('.', '/').replace('$', '/');
+        }
+        if (template.isUsed(2)) {
+            values[2] = pBinaryClassName.getOuterFqcn();
+        }
+        if (template.isUsed(3)) {
+            values[3] = pBinaryClassName.getOuterFqcn().replace('.', '/');
+        }
+        if (template.isUsed(4)) {
+            values[4] = pBinaryClassName.getOuterFqcn().replace('.', '/').replaceAll("[^/]+", "..");
+        }
+        if (template.isUsed(5) || template.isUsed(12)) {
+            final String pg = pBinaryClassName.getPackage();
+            values[5] = pg != null ? pg.replace('.', '/') : "";
+            if (template.isUsed(12)) {
+                values[12] = getPathToClass(values[5]);
+            }
+        }
+        if (template.isUsed(6)) {
+            values[6] = pBinaryClassName.getOuterSimpleName();
+        }
+        if (template.isUsed(7)) {
+            values[7] = pBinaryClassName.getInnerSimpleName();
+        }
+        values[8] = subdirs[0];
+        values[9] = subdirs[1];
+        values[10] = subdirs[2];
 
-        final StringBuilder ph11 = new StringBuilder();
-        final String[] subdirs = getFirstSubdirs(NUM_SUBDIRS);
         if (pReplace11) {
+            final StringBuilder ph11 = new StringBuilder();
             for (int i = 0; i < pSubDirLevel; i++) {
                 ph11.append(subdirs[i]);
                 ph11.append('/');   // always slash, not backslash
             }
+            values[11] = ph11.toString();
+        }
+        else {
+            values[11] = "{11}";
         }
 
-        return MessageFormat.format(propertyFileTemplate, pBinaryClassName, completePath, outerFqcn, outerFqcnPath,
-            outerFqcnBackrefs, pkgPath, outerSimpleName, innerSimpleName, subdirs[0], subdirs[1], subdirs[2],
-            pReplace11 ? ph11.toString() : "{11}", pathToClass);
+        return template.format(values);
+    }
+
+
+
+    private boolean isReadable(@Nonnull final File pFile)
+    {
+        final String path = pFile.getAbsolutePath();
+        Boolean result = fileReadability.get(path);
+        if (result == null) {
+            result = Boolean.valueOf(pFile.canRead());
+            fileReadability.put(path, result);
+        }
+        return result.booleanValue();
     }
 
 
 
     /**
-     * Assuming that the currently analyzed file is located below the current working directory, this method returns a
-     * new array of exactly <code>pNumSubdirs</code> elements containing the simple names of the directories on the
-     * path to the currently analyzed file, starting just below the current working directory.
+     * Assuming that the currently analyzed file is located below the current working directory, this method returns an
+     * array of exactly {@link #NUM_SUBDIRS} elements containing the simple names of the directories on the path to the
+     * currently analyzed file, starting just below the current working directory. The result is computed only once per
+     * tree, so it must not be modified by callers.
      *
-     * @param pNumSubdirs the number of subdirectory names to return. If fewer exist, they are padded with
-     * <code>null</code>
      * @return the first n subdirs, where non-existing elements are <code>null</code>
      */
     @Nonnull
-    private String[] getFirstSubdirs(final int pNumSubdirs)
+    private String[] getFirstSubdirs()
     {
-        String[] result = new String[pNumSubdirs];
-        Arrays.fill(result, null);
+        if (currentSubdirs != null) {
+            return currentSubdirs;
+        }
 
-        final File thisFile = Util.canonize(getApiFixer().getCurrentFileName());
-        if (thisFile.getPath().startsWith(baseDir.getPath())) {
+        String[] result = new String[NUM_SUBDIRS];
+        Arrays.fill(result, null);
 
-            final String relPath = thisFile.getPath().substring(baseDir.getPath().length() + 1); // incl. separator char
-            final String[] pathElements = relPath.split(Pattern.quote(File.separator), pNumSubdirs + 1);
+        final String relPath = getCurrentFileRelativePath(baseDir);
+        if (relPath != null) {
+            final String[] pathElements = relPath.split(Pattern.quote(File.separator), NUM_SUBDIRS + 1);
             int i = 0;
             for (String elem : pathElements) {
-                if (i < pNumSubdirs) {
+                if (i < NUM_SUBDIRS) {
                     result[i++] = elem;
                 }
             }
         }
+        currentSubdirs = result;
         return result;
     }
 
@@ -357,10 +544,10 @@ public class PropertyCatalogCheck
     private String getPathToClass(@Nonnull final String pPkgPath)
     {
         String result = "";
-        final File thisFile = Util.canonize(getApiFixer().getCurrentFileName().getParentFile());
-        if (thisFile.getPath().startsWith(baseDir.getPath())
-            && thisFile.getPath().length() >= baseDir.getPath().length() + 1) {
-            final String relPath = thisFile.getPath().substring(baseDir.getPath().length() + 1);
+        final String relFilePath = getCurrentFileRelativePath(baseDir);
+        final int lastSep = relFilePath != null ? relFilePath.lastIndexOf(File.separatorChar) : -1;
+        if (lastSep > 0) {
+            final String relPath = relFilePath.substring(0, lastSep);
             if (pPkgPath.isEmpty()) {
                 result = relPath;
             }
@@ -378,34 +565,18 @@ public class PropertyCatalogCheck
 
 
     @CheckForNull
-    private Map<String, String> loadPropertyFile(@Nonnull final File pPropertyFile)
-    {
-        Properties props = new Properties();
-        FileInputStream fis = null;
-        BufferedInputStream bis = null;
-        InputStreamReader isr = null;
-        try {
-            fis = new FileInputStream(pPropertyFile);
-            bis = new BufferedInputStream(fis);
-            isr = new InputStreamReader(bis, propertyFileEncoding);
-            props.load(isr);
-        }
-        catch (IOException e) {
-            props = null;
-        }
-        finally {
-            Util.closeQuietly(isr);
-            Util.closeQuietly(bis);
-            Util.closeQuietly(fis);
-        }
-
-        Map<String, String> result = null;
-        if (props != null) {
-            result = caseSensitiveKeys ? new HashMap<String, String>() : new TreeMap<String, String>(
-                String.CASE_INSENSITIVE_ORDER);
-            for (Map.Entry<Object, Object> entry : props.entrySet()) {
-                result.put((String) entry.getKey(), (String) entry.getValue());
-            }
+    private PropertyKeySet loadPropertyFile(@Nonnull final File pPropertyFile)
+    {
+        final Set<String> keys = PropertyFileCache.getInstance().get(pPropertyFile, propertyFileEncoding, cacheDir);
+        if (keys == null) {
+            return null;
+        }
+
+        final String path = pPropertyFile.getAbsolutePath();
+        PropertyKeySet result = propertyKeySets.get(path);
+        if (result == null || !result.isBasedOn(keys)) {
+            result = new PropertyKeySet(keys, caseSensitiveKeys);
+            propertyKeySets.put(path, result);
         }
         return result;
     }
@@ -553,6 +724,8 @@ public class PropertyCatalogCheck
     public void setBaseDir(final String pBaseDir)
     {
         baseDir = Util.canonize(new File(pBaseDir));
+        currentSubdirs = null;
+        propertyFileLocations.clear();
     }
 
 
@@ -588,6 +761,8 @@ public class PropertyCatalogCheck
     public void setPropertyFile(final String pTemplate)
     {
         propertyFileTemplate = pTemplate;
+        compiledTemplate = new PropertyFileTemplate(pTemplate);
+        propertyFileLocations.clear();
     }
 
 
@@ -616,5 +791,20 @@ public class PropertyCatalogCheck
     public void setCaseSensitive(final boolean pCaseSensitive)
     {
         caseSensitiveKeys = pCaseSensitive;
+        propertyKeySets.clear();
+    }
+
+
+
+    public void setCacheDir(final String pCacheDir)
+    {
+        cacheDir = pCacheDir != null && pCacheDir.length() > 0 ? Util.canonize(new File(pCacheDir)) : null;
+    }
+
+
+
+    public void setSharedPropertyFiles(final boolean pSharedPropertyFiles)
+    {
+        sharedPropertyFiles = pSharedPropertyFiles;
     }
 }
@@ -0,0 +1,380 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * Index of the property catalogs analyzed during one audit, grouped by property file. Used when several catalogs share
+ * one property file, so that orphans and duplicates can be determined across all of these catalogs once the audit is
+ * complete.
+ * <p>The index is created by the {@link SharedPropertyCatalogCheck} at the beginning of an audit, and made available
+ * to the {@link PropertyCatalogCheck} instances of the same audit via the current thread, because Checkstyle processes
+ * all files of an audit on the thread which started it.</p>
+ */
+@NotThreadSafe
+final class PropertyCatalogIndex
+{
+    /** the index of the audit running on the current thread, if any */
+    private static final ThreadLocal<PropertyCatalogIndex> CURRENT = new ThreadLocal<>();
+
+    /** Orders catalogs by binary name, so that the analysis does not depend on the order of the source files. */
+    private static final Comparator<Catalog> CATALOG_ORDER = new Comparator<Catalog>()
+    {
+        @Override
+        public int compare(final Catalog pCatalog1, final Catalog pCatalog2)
+        {
+            int result = pCatalog1.binaryName.compareTo(pCatalog2.binaryName);
+            if (result == 0) {
+                result = pCatalog1.sourceFile.compareTo(pCatalog2.sourceFile);
+            }
+            return result;
+        }
+    };
+
+    /** Orders findings by source file and line number, so that they can be reported file by file. */
+    private static final Comparator<Finding> FINDING_ORDER = new Comparator<Finding>()
+    {
+        @Override
+        public int compare(final Finding pFinding1, final Finding pFinding2)
+        {
+            int result = pFinding1.sourceFile.compareTo(pFinding2.sourceFile);
+            if (result == 0) {
+                result = Integer.compare(pFinding1.lineNo, pFinding2.lineNo);
+            }
+            return result;
+        }
+    };
+
+    /** Map from canonical property file path to the catalogs using that file; sorted for a stable report order */
+    private final Map<String, Bundle> bundles = new TreeMap<>();
+
+
+
+    /** A property catalog registered with the index. */
+    @Immutable
+    static final class Catalog
+    {
+        private final String binaryName;
+
+        private final String sourceFile;
+
+        private final int lineNo;
+
+        private final boolean reportDuplicates;
+
+        private final boolean reportOrphans;
+
+        private final List<Entry> entries;
+
+
+
+        /**
+         * Constructor.
+         *
+         * @param pBinaryName binary name of the catalog
+         * @param pSourceFile path of the source file containing the catalog
+         * @param pLineNo line number of the catalog's type declaration, on which orphans are reported
+         * @param pReportDuplicates whether references to the same property from another catalog shall be reported
+         * @param pReportOrphans whether unreferenced properties shall be reported
+         * @param pEntries the entries of the catalog
+         */
+        Catalog(@Nonnull final String pBinaryName, @Nonnull final String pSourceFile, final int pLineNo,
+            final boolean pReportDuplicates, final boolean pReportOrphans, @Nonnull final List<Entry> pEntries)
+        {
+            binaryName = pBinaryName;
+            sourceFile = pSourceFile;
+            lineNo = pLineNo;
+            reportDuplicates = pReportDuplicates;
+            reportOrphans = pReportOrphans;
+            entries = Collections.unmodifiableList(new ArrayList<>(pEntries));
+        }
+    }
+
+
+
+    /** An entry of a registered property catalog. */
+    @Immutable
+    static final class Entry
+    {
+        private final String constantName;
+
+        private final String key;
+
+        private final int lineNo;
+
+
+
+        Entry(@Nonnull final String pConstantName, @Nonnull final String pKey, final int pLineNo)
+        {
+            constantName = pConstantName;
+            key = pKey;
+            lineNo = pLineNo;
+        }
+    }
+
+
+
+    /** A problem found by the analysis, to be reported on a particular line of a source file. */
+    @Immutable
+    static final class Finding
+    {
+        private final String sourceFile;
+
+        private final int lineNo;
+
+        private final String messageKey;
+
+        private final Object[] args;
+
+
+
+        Finding(@Nonnull final String pSourceFile, final int pLineNo, @Nonnull final String pMessageKey,
+            @Nonnull final Object... pArgs)
+        {
+            sourceFile = pSourceFile;
+            lineNo = pLineNo;
+            messageKey = pMessageKey;
+            args = pArgs.clone();
+        }
+
+
+
+        @Nonnull
+        public String getSourceFile()
+        {
+            return sourceFile;
+        }
+
+
+
+        public int getLineNo()
+        {
+            return lineNo;
+        }
+
+
+
+        @Nonnull
+        public String getMessageKey()
+        {
+            return messageKey;
+        }
+
+
+
+        @Nonnull
+        public Object[] getArgs()
+        {
+            return args.clone();
+        }
+    }
+
+
+
+    /** The catalogs using one property file. */
+    private static final class Bundle
+    {
+        /** the property file as found by the first catalog using it */
+        private final File propFile;
+
+        /** the keys of the property file, which also determine whether keys are case sensitive */
+        private final PropertyKeySet keys;
+
+        private final List<Catalog> catalogs = new ArrayList<>();
+
+
+
+        Bundle(@Nonnull final File pPropFile, @Nonnull final PropertyKeySet pKeys)
+        {
+            propFile = pPropFile;
+            keys = pKeys;
+        }
+    }
+
+
+
+    /**
+     * Create a new index for an audit which is about to start on the current thread.
+     *
+     * @return the new index, which is now the current index of this thread
+     */
+    @Nonnull
+    static PropertyCatalogIndex beginAudit()
+    {
+        final PropertyCatalogIndex result = new PropertyCatalogIndex();
+        CURRENT.set(result);
+        return result;
+    }
+
+
+
+    /**
+     * Getter.
+     *
+     * @return the index of the audit running on the current thread, or <code>null</code> if no
+     *     {@link SharedPropertyCatalogCheck} takes part in the audit
+     */
+    @CheckForNull
+    static PropertyCatalogIndex getCurrent()
+    {
+        return CURRENT.get();
+    }
+
+
+
+    /**
+     * Detach this index from the current thread, so that no more catalogs are registered with it.
+     */
+    void endAudit()
+    {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+
+
+    /**
+     * Register a property catalog.
+     *
+     * @param pPropFilePath canonical path of the property file used by the catalog
+     * @param pPropFile the property file, as it shall appear in messages
+     * @param pKeys the keys of the property file
+     * @param pCatalog the catalog
+     */
+    void register(@Nonnull final String pPropFilePath, @Nonnull final File pPropFile,
+        @Nonnull final PropertyKeySet pKeys, @Nonnull final Catalog pCatalog)
+    {
+        Bundle bundle = bundles.get(pPropFilePath);
+        if (bundle == null) {
+            bundle = new Bundle(pPropFile, pKeys);
+            bundles.put(pPropFilePath, bundle);
+        }
+        bundle.catalogs.add(pCatalog);
+    }
+
+
+
+    /**
+     * Determine the orphans and duplicates across all catalogs registered so far. A reference to a property which is
+     * also referenced by another catalog is reported on every such reference. Orphans of a property file are reported
+     * once, on the first catalog by binary name which wants orphans reported.
+     *
+     * @return the findings, ordered by source file and line number
+     */
+    @Nonnull
+    List<Finding> analyze()
+    {
+        final List<Finding> result = new ArrayList<>();
+        for (final Bundle bundle : bundles.values()) {
+            final List<Catalog> catalogs = new ArrayList<>(bundle.catalogs);
+            Collections.sort(catalogs, CATALOG_ORDER);
+
+            final Map<String, List<Catalog>> referencingCatalogs = new HashMap<>();
+            final Map<String, List<Entry>> references = new HashMap<>();
+            for (final Catalog catalog : catalogs) {
+                for (final Entry entry : catalog.entries) {
+                    final String lookupKey = bundle.keys.toLookupKey(entry.key);
+                    List<Entry> entries = references.get(lookupKey);
+                    if (entries == null) {
+                        entries = new ArrayList<>();
+                        references.put(lookupKey, entries);
+                        referencingCatalogs.put(lookupKey, new ArrayList<Catalog>());
+                    }
+                    entries.add(entry);
+                    referencingCatalogs.get(lookupKey).add(catalog);
+                }
+            }
+
+            for (final Map.Entry<String, List<Entry>> reference : references.entrySet()) {
+                analyzeDuplicates(reference.getValue(), referencingCatalogs.get(reference.getKey()), result);
+            }
+            analyzeOrphans(bundle, catalogs, references.keySet(), result);
+        }
+        Collections.sort(result, FINDING_ORDER);
+        return result;
+    }
+
+
+
+    private static void analyzeDuplicates(@Nonnull final List<Entry> pEntries,
+        @Nonnull final List<Catalog> pCatalogs, @Nonnull final List<Finding> pResult)
+    {
+        for (int i = 0; i < pEntries.size(); i++) {
+            final Catalog catalog = pCatalogs.get(i);
+            if (catalog.reportDuplicates) {
+                for (int j = 0; j < pEntries.size(); j++) {
+                    final Catalog other = pCatalogs.get(j);
+                    if (other != catalog) {
+                        final Entry entry = pEntries.get(i);
+                        pResult.add(new Finding(catalog.sourceFile, entry.lineNo,
+                            "propertycatalog.duplicate.property.shared", entry.constantName,
+                            pEntries.get(j).constantName, other.binaryName));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+
+
+    private static void analyzeOrphans(@Nonnull final Bundle pBundle, @Nonnull final List<Catalog> pCatalogs,
+        @Nonnull final Set<String> pReferencedKeys, @Nonnull final List<Finding> pResult)
+    {
+        Catalog reporter = null;
+        for (final Catalog catalog : pCatalogs) {
+            if (catalog.reportOrphans) {
+                reporter = catalog;
+                break;
+            }
+        }
+        if (reporter == null) {
+            return;
+        }
+
+        final Set<String> orphans = new TreeSet<>();    // The orphan list is always case sensitive.
+        for (final String prop : pBundle.keys.getKeys()) {
+            if (!pReferencedKeys.contains(pBundle.keys.toLookupKey(prop))) {
+                orphans.add(prop);
+            }
+        }
+        if (orphans.size() == 1) {
+            pResult.add(new Finding(reporter.sourceFile, reporter.lineNo, "propertycatalog.orphaned.property",
+                orphans.iterator().next(), pBundle.propFile));
+        }
+        else if (orphans.size() > 1) {
+            pResult.add(new Finding(reporter.sourceFile, reporter.lineNo, "propertycatalog.orphaned.properties",
+                orphans, pBundle.propFile));
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * JVM-wide cache of the keys of parsed property files, used by the {@link PropertyCatalogCheck}. Many property
+ * catalogs may share the same property file, so each file is parsed at most once for as long as it remains unchanged.
+ * Changes are detected by comparing the file's modification time and size.
+ * <p>Optionally, the parsed contents are also written to a <em>snapshot</em> file in a given directory, so that
+ * subsequent runs in a fresh JVM need not parse the property file again.</p>
+ */
+@ThreadSafe
+final class PropertyFileCache
+{
+    private static final PropertyFileCache INSTANCE = new PropertyFileCache();
+
+    /** magic number identifying our snapshot files */
+    private static final int SNAPSHOT_MAGIC = 0x43415043;
+
+    /** format version of our snapshot files; increment when the format changes */
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    /** Map from cache key (see {@link #buildKey}) to the cached keys of the property file */
+    private final ConcurrentMap<String, CachedFile> entries = new ConcurrentHashMap<>();
+
+
+
+    /** The keys of one property file, along with the information needed to detect changes. */
+    @Immutable
+    private static final class CachedFile
+    {
+        private final String path;
+
+        private final String encoding;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final Set<String> keys;
+
+        /** the directory which holds a snapshot of this entry, or <code>null</code> if none is known */
+        private final File snapshotDir;
+
+
+
+        CachedFile(@Nonnull final String pPath, @Nonnull final String pEncoding, final long pLastModified,
+            final long pLength, @Nonnull final Set<String> pKeys, @Nullable final File pSnapshotDir)
+        {
+            path = pPath;
+            encoding = pEncoding;
+            lastModified = pLastModified;
+            length = pLength;
+            keys = pKeys;
+            snapshotDir = pSnapshotDir;
+        }
+
+
+
+        boolean isUpToDate(@Nonnull final String pPath, @Nonnull final String pEncoding, final long pLastModified,
+            final long pLength)
+        {
+            return lastModified == pLastModified && length == pLength && path.equals(pPath) && encoding.equals(
+                pEncoding);
+        }
+    }
+
+
+
+    private PropertyFileCache()
+    {
+        super();
+    }
+
+
+
+    @Nonnull
+    static PropertyFileCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+
+
+    /**
+     * Get the keys of a property file. The file is only read if it is not already present in the cache, or if it
+     * has changed since it was cached.
+     *
+     * @param pPropertyFile the property file
+     * @param pEncoding the character encoding of the property file
+     * @param pSnapshotDir directory where snapshot files shall be stored, or <code>null</code> if snapshots are not
+     *     desired
+     * @return an unmodifiable, case-sensitive set of the property keys, or <code>null</code> if the file could not be
+     *     read
+     */
+    @CheckForNull
+    public Set<String> get(@Nonnull final File pPropertyFile, @Nonnull final Charset pEncoding,
+        @Nullable final File pSnapshotDir)
+    {
+        final File file = Util.canonize(pPropertyFile);
+        final String path = file.getPath();
+        final String encoding = pEncoding.name();
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        if (lastModified == 0L || !file.isFile()) {
+            return null;
+        }
+
+        final String key = buildKey(path, encoding);
+        CachedFile cached = entries.get(key);
+        final CachedFile previous = cached;
+        if (cached == null || !cached.isUpToDate(path, encoding, lastModified, length)) {
+            cached = null;
+            if (pSnapshotDir != null) {
+                cached = readSnapshot(new File(pSnapshotDir, buildSnapshotFilename(file, key)));
+                if (cached != null && !cached.isUpToDate(path, encoding, lastModified, length)) {
+                    cached = null;
+                }
+            }
+            if (cached == null) {
+                final Set<String> keys = parse(file, pEncoding);
+                if (keys == null) {
+                    entries.remove(key);
+                    return null;
+                }
+                cached = new CachedFile(path, encoding, lastModified, length, Collections.unmodifiableSet(keys), null);
+            }
+        }
+        if (pSnapshotDir != null && !pSnapshotDir.equals(cached.snapshotDir)) {
+            writeSnapshot(new File(pSnapshotDir, buildSnapshotFilename(file, key)), cached);
+            cached = new CachedFile(cached.path, cached.encoding, cached.lastModified, cached.length,
+                cached.keys, pSnapshotDir);
+        }
+        if (cached != previous) {
+            entries.put(key, cached);
+        }
+        return cached.keys;
+    }
+
+
+
+    /**
+     * Remove all entries from the in-memory cache. Snapshot files are not affected.
+     */
+    void clear()
+    {
+        entries.clear();
+    }
+
+
+
+    @Nonnull
+    private static String buildKey(@Nonnull final String pPath, @Nonnull final String pEncoding)
+    {
+        return pEncoding + ':' + pPath;
+    }
+
+
+
+    @Nonnull
+    static String buildSnapshotFilename(@Nonnull final File pPropertyFile, @Nonnull final String pKey)
+    {
+        return pPropertyFile.getName() + '-' + String.format(Locale.ENGLISH, "%08x", Integer.valueOf(pKey.hashCode()))
+            + SNAPSHOT_SUFFIX;
+    }
+
+
+
+    @CheckForNull
+    private static Set<String> parse(@Nonnull final File pPropertyFile, @Nonnull final Charset pEncoding)
+    {
+        Set<String> result = null;
+        try {
+            result = PropertyKeyParser.parseKeys(pPropertyFile, pEncoding);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            result = null;   // unreadable or malformed property file
+        }
+        return result;
+    }
+
+
+
+    @CheckForNull
+    private static CachedFile readSnapshot(@Nonnull final File pSnapshotFile)
+    {
+        if (!pSnapshotFile.isFile()) {
+            return null;
+        }
+        CachedFile result = null;
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(pSnapshotFile)));
+            if (dis.readInt() == SNAPSHOT_MAGIC && dis.readInt() == SNAPSHOT_VERSION) {
+                final long limit = pSnapshotFile.length();
+                final String path = readString(dis, limit);
+                final String encoding = readString(dis, limit);
+                final long lastModified = dis.readLong();
+                final long length = dis.readLong();
+                final int numEntries = dis.readInt();
+                final Set<String> keys = new HashSet<>();
+                for (int i = 0; i < numEntries; i++) {
+                    keys.add(readString(dis, limit));
+                }
+                result = new CachedFile(path, encoding, lastModified, length, Collections.unmodifiableSet(keys),
+                    pSnapshotFile.getParentFile());
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            result = null;   // corrupt or outdated snapshot, will be overwritten
+        }
+        finally {
+            Util.closeQuietly(dis);
+        }
+        return result;
+    }
+
+
+
+    private static void writeSnapshot(@Nonnull final File pSnapshotFile, @Nonnull final CachedFile pCachedFile)
+    {
+        final File dir = pSnapshotFile.getParentFile();
+        File tempFile = null;
+        DataOutputStream dos = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                return;
+            }
+            tempFile = File.createTempFile(pSnapshotFile.getName(), ".tmp", dir);
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            dos.writeInt(SNAPSHOT_MAGIC);
+            dos.writeInt(SNAPSHOT_VERSION);
+            writeString(dos, pCachedFile.path);
+            writeString(dos, pCachedFile.encoding);
+            dos.writeLong(pCachedFile.lastModified);
+            dos.writeLong(pCachedFile.length);
+            dos.writeInt(pCachedFile.keys.size());
+            for (final String key : pCachedFile.keys) {
+                writeString(dos, key);
+            }
+            dos.close();
+            dos = null;
+
+            try {
+                Files.move(tempFile.toPath(), pSnapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), pSnapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        }
+        catch (IOException e) {
+            // snapshots are optional, so the property file will simply be parsed again next time
+        }
+        finally {
+            Util.closeQuietly(dos);
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+
+
+    @Nonnull
+    private static String readString(@Nonnull final DataInputStream pDis, final long pLimit)
+        throws IOException
+    {
+        final int len = pDis.readInt();
+        if (len < 0 || len > pLimit) {
+            throw new IOException("corrupt snapshot");
+        }
+        final byte[] bytes = new byte[len];
+        pDis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+
+    private static void writeString(@Nonnull final DataOutputStream pDos, @Nonnull final String pString)
+        throws IOException
+    {
+        // not using writeUTF() because that is limited to 64k bytes
+        final byte[] bytes = pString.getBytes(StandardCharsets.UTF_8);
+        pDos.writeInt(bytes.length);
+        pDos.write(bytes);
+    }
+}
@@ -0,0 +1,182 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * The compiled form of the <code>propertyFile</code> template of the {@link PropertyCatalogCheck}. The template is
+ * parsed only once, and only those placeholders which are actually referenced need to be evaluated.
+ * <p>Templates using features of {@link MessageFormat} beyond simple placeholders like <code>{0}</code> (such as
+ * quotes or format types) are passed on to {@link MessageFormat} unchanged, so that the result is always the
+ * same.</p>
+ */
+@Immutable
+final class PropertyFileTemplate
+{
+    /** the number of placeholders supported in property file templates, <code>{0}</code> to <code>{12}</code> */
+    static final int NUM_PLACEHOLDERS = 13;
+
+    /** literal segments of the template, or <code>null</code> where the segment is a placeholder */
+    private final String[] literals;
+
+    /** placeholder indexes of the template segments, or -1 where the segment is a literal */
+    private final int[] placeholders;
+
+    /** flags indicating which placeholders occur in the template */
+    private final boolean[] used = new boolean[NUM_PLACEHOLDERS];
+
+    /** the original template if it must be handled by {@link MessageFormat}, or <code>null</code> if not needed */
+    private final String fallback;
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pTemplate the template string
+     * @throws IllegalArgumentException the template is not a valid {@link MessageFormat} pattern
+     */
+    PropertyFileTemplate(@Nonnull final String pTemplate)
+    {
+        final List<String> segments = new ArrayList<>();
+        if (parse(pTemplate, segments)) {
+            literals = new String[segments.size()];
+            placeholders = new int[segments.size()];
+            for (int i = 0; i < segments.size(); i++) {
+                final String segment = segments.get(i);
+                if (segment.length() > 1 && segment.charAt(0) == '{') {
+                    placeholders[i] = Integer.parseInt(segment.substring(1, segment.length() - 1));
+                    used[placeholders[i]] = true;
+                }
+                else {
+                    placeholders[i] = -1;
+                    literals[i] = segment;
+                }
+            }
+            fallback = null;
+        }
+        else {
+            literals = new String[0];
+            placeholders = new int[0];
+            for (int i = 0; i < NUM_PLACEHOLDERS; i++) {
+                used[i] = true;
+            }
+            new MessageFormat(pTemplate);   // fail early if the template is invalid
+            fallback = pTemplate;
+        }
+    }
+
+
+
+    /**
+     * Split the template into literal segments and placeholder segments. Placeholder segments are stored including
+     * their braces.
+     *
+     * @param pTemplate the template string
+     * @param pSegments list to which the segments are added
+     * @return <code>true</code> if successful, <code>false</code> if the template uses features we cannot handle
+     */
+    private static boolean parse(@Nonnull final String pTemplate, @Nonnull final List<String> pSegments)
+    {
+        if (pTemplate.indexOf('\'') >= 0) {
+            return false;   // quoting is left to MessageFormat
+        }
+        int pos = 0;
+        while (pos < pTemplate.length()) {
+            final int open = pTemplate.indexOf('{', pos);
+            final int close = pTemplate.indexOf('}', pos);
+            if (open < 0) {
+                if (close >= 0) {
+                    return false;
+                }
+                pSegments.add(pTemplate.substring(pos));
+                break;
+            }
+            if (close < open || !isPlaceholder(pTemplate.substring(open + 1, close))) {
+                return false;
+            }
+            if (open > pos) {
+                pSegments.add(pTemplate.substring(pos, open));
+            }
+            pSegments.add(pTemplate.substring(open, close + 1));
+            pos = close + 1;
+        }
+        return true;
+    }
+
+
+
+    private static boolean isPlaceholder(@Nonnull final String pIndex)
+    {
+        if (pIndex.isEmpty() || pIndex.length() > 2) {
+            return false;
+        }
+        for (int i = 0; i < pIndex.length(); i++) {
+            if (pIndex.charAt(i) < '0' || pIndex.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return Integer.parseInt(pIndex) < NUM_PLACEHOLDERS;
+    }
+
+
+
+    /**
+     * Determine if the given placeholder must be evaluated for this template.
+     *
+     * @param pIndex the placeholder index, 0 to 12
+     * @return <code>true</code> if the value is needed by {@link #format}
+     */
+    boolean isUsed(final int pIndex)
+    {
+        return used[pIndex];
+    }
+
+
+
+    /**
+     * Fill in the placeholders.
+     *
+     * @param pValues the placeholder values, indexed by placeholder number. Unused placeholders may be
+     *     <code>null</code>, and <code>null</code> values of used placeholders yield "null" like in {@link
+     *     MessageFormat}.
+     * @return the resulting String
+     */
+    @Nonnull
+    String format(@Nonnull final String[] pValues)
+    {
+        if (fallback != null) {
+            return MessageFormat.format(fallback, (Object[]) pValues);
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < placeholders.length; i++) {
+            if (placeholders[i] >= 0) {
+                sb.append(pValues[placeholders[i]]);
+            }
+            else {
+                sb.append(literals[i]);
+            }
+        }
+        return sb.toString();
+    }
+}
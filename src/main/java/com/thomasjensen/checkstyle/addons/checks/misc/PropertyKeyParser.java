@@ -0,0 +1,290 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * Reads the keys from a property file, following the format rules of {@link java.util.Properties#load(java.io.Reader)
+ * Properties.load()}. The values are skipped, because the {@link PropertyCatalogCheck} does not need them. The file is
+ * streamed through fixed-size buffers, so memory consumption does not depend on the size of the file.
+ */
+@NotThreadSafe
+final class PropertyKeyParser
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    /** the keys found so far */
+    private final Set<String> keys = new HashSet<>();
+
+    /** the current logical line, with continuation lines joined */
+    private final StringBuilder line = new StringBuilder();
+
+    private boolean skipWhiteSpace = true;
+
+    private boolean newLine = true;
+
+    private boolean commentLine = false;
+
+    private boolean appendedLineBegin = false;
+
+    private boolean precedingBackslash = false;
+
+    private boolean skipLF = false;
+
+
+
+    private PropertyKeyParser()
+    {
+        super();
+    }
+
+
+
+    /**
+     * Read the keys from the given property file.
+     *
+     * @param pPropertyFile the property file
+     * @param pEncoding the character encoding of the property file
+     * @return the set of keys found in the file
+     * @throws IOException the file could not be read
+     * @throws IllegalArgumentException the file contains a malformed <code>&#92;uxxxx</code> escape sequence in a key
+     */
+    @Nonnull
+    static Set<String> parseKeys(@Nonnull final File pPropertyFile, @Nonnull final Charset pEncoding)
+        throws IOException
+    {
+        final PropertyKeyParser parser = new PropertyKeyParser();
+        final CharsetDecoder decoder = pEncoding.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(pPropertyFile.toPath(), StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, eof);
+                    parser.consume(chars);
+                } while (result.isOverflow());
+                bytes.compact();
+            }
+            while (decoder.flush(chars).isOverflow()) {
+                parser.consume(chars);
+            }
+            parser.consume(chars);
+        }
+        parser.finish();
+        return parser.keys;
+    }
+
+
+
+    private void consume(@Nonnull final CharBuffer pChars)
+    {
+        pChars.flip();
+        while (pChars.hasRemaining()) {
+            consume(pChars.get());
+        }
+        pChars.clear();
+    }
+
+
+
+    /**
+     * Process one character, building logical lines in the same way as <code>java.util.Properties.LineReader</code>.
+     *
+     * @param pChar the next character from the property file
+     */
+    private void consume(final char pChar)
+    {
+        if (skipLF) {
+            skipLF = false;
+            if (pChar == '\n') {
+                return;
+            }
+        }
+        if (skipWhiteSpace) {
+            if (pChar == ' ' || pChar == '\t' || pChar == '\f') {
+                return;
+            }
+            if (!appendedLineBegin && (pChar == '\r' || pChar == '\n')) {
+                return;
+            }
+            skipWhiteSpace = false;
+            appendedLineBegin = false;
+        }
+        if (newLine) {
+            newLine = false;
+            if (pChar == '#' || pChar == '!') {
+                commentLine = true;
+                return;
+            }
+        }
+
+        if (pChar != '\n' && pChar != '\r') {
+            if (!commentLine) {
+                line.append(pChar);
+                precedingBackslash = pChar == '\\' && !precedingBackslash;
+            }
+        }
+        else if (commentLine || line.length() == 0) {
+            resetLine();
+        }
+        else if (precedingBackslash) {
+            line.setLength(line.length() - 1);
+            skipWhiteSpace = true;
+            appendedLineBegin = true;
+            precedingBackslash = false;
+            skipLF = pChar == '\r';
+        }
+        else {
+            addKey();
+            resetLine();
+            skipLF = pChar == '\r';
+        }
+    }
+
+
+
+    private void finish()
+    {
+        if (!commentLine && line.length() > 0) {
+            if (precedingBackslash) {
+                line.setLength(line.length() - 1);
+            }
+            addKey();
+        }
+        resetLine();
+    }
+
+
+
+    private void resetLine()
+    {
+        line.setLength(0);
+        skipWhiteSpace = true;
+        newLine = true;
+        commentLine = false;
+        appendedLineBegin = false;
+        precedingBackslash = false;
+    }
+
+
+
+    /**
+     * Extract the key from the current logical line, as <code>java.util.Properties.load0()</code> does.
+     */
+    private void addKey()
+    {
+        int keyLen = 0;
+        boolean escaped = false;
+        boolean backslash = false;
+        while (keyLen < line.length()) {
+            final char c = line.charAt(keyLen);
+            if (!backslash && (c == '=' || c == ':' || c == ' ' || c == '\t' || c == '\f')) {
+                break;
+            }
+            if (c == '\\') {
+                backslash = !backslash;
+                escaped = true;
+            }
+            else {
+                backslash = false;
+            }
+            keyLen++;
+        }
+        keys.add(escaped ? unescape(keyLen) : line.substring(0, keyLen));
+    }
+
+
+
+    @Nonnull
+    private String unescape(final int pLen)
+    {
+        final StringBuilder sb = new StringBuilder(pLen);
+        int i = 0;
+        while (i < pLen) {
+            char c = line.charAt(i++);
+            if (c == '\\' && i < pLen) {
+                c = line.charAt(i++);
+                if (c == 'u') {
+                    if (i + 4 > pLen) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    int value = 0;
+                    for (int j = 0; j < 4; j++) {
+                        final int digit = hexDigit(line.charAt(i++));
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        value = (value << 4) + digit;
+                    }
+                    c = (char) value;
+                }
+                else if (c == 't') {
+                    c = '\t';
+                }
+                else if (c == 'r') {
+                    c = '\r';
+                }
+                else if (c == 'n') {
+                    c = '\n';
+                }
+                else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+
+
+    private static int hexDigit(final char pChar)
+    {
+        int result = -1;
+        if (pChar >= '0' && pChar <= '9') {
+            result = pChar - '0';
+        }
+        else if (pChar >= 'a' && pChar <= 'f') {
+            result = pChar - 'a' + 10;
+        }
+        else if (pChar >= 'A' && pChar <= 'F') {
+            result = pChar - 'A' + 10;
+        }
+        return result;
+    }
+}
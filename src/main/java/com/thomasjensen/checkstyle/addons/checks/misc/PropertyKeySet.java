@@ -0,0 +1,116 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.Immutable;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * The keys of a property file, prepared for lookups which may be case insensitive. In case-insensitive mode, the keys
+ * are case-folded once when the instance is created, so that lookups are simple hash lookups.
+ */
+@Immutable
+final class PropertyKeySet
+{
+    /** the original keys, as read from the property file */
+    private final Set<String> keys;
+
+    /** Map from folded key to original key, or <code>null</code> if the keys are case sensitive */
+    private final Map<String, String> foldedKeys;
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pKeys the keys read from the property file (this set must not be modified afterwards)
+     * @param pCaseSensitive whether the keys are case sensitive
+     */
+    PropertyKeySet(@Nonnull final Set<String> pKeys, final boolean pCaseSensitive)
+    {
+        keys = pKeys;
+        if (pCaseSensitive) {
+            foldedKeys = null;
+        }
+        else {
+            final Map<String, String> folded = new HashMap<>();
+            for (final String key : pKeys) {
+                final String foldedKey = Util.foldCase(key);
+                if (!folded.containsKey(foldedKey)) {
+                    folded.put(foldedKey, key);
+                }
+            }
+            foldedKeys = Collections.unmodifiableMap(folded);
+        }
+    }
+
+
+
+    /**
+     * Determine if this instance was created from the given key set.
+     *
+     * @param pKeys a set of keys read from a property file
+     * @return <code>true</code> if this instance is based on the same set instance
+     */
+    boolean isBasedOn(@Nonnull final Set<String> pKeys)
+    {
+        return keys == pKeys;
+    }
+
+
+
+    /**
+     * Convert a key into the form used for lookups.
+     *
+     * @param pKey a property key
+     * @return the key itself in case-sensitive mode, the folded key in case-insensitive mode
+     */
+    @Nonnull
+    String toLookupKey(@Nonnull final String pKey)
+    {
+        return foldedKeys == null ? pKey : Util.foldCase(pKey);
+    }
+
+
+
+    boolean contains(@Nonnull final String pKey)
+    {
+        return foldedKeys == null ? keys.contains(pKey) : foldedKeys.containsKey(Util.foldCase(pKey));
+    }
+
+
+
+    /**
+     * Getter.
+     *
+     * @return the keys of the property file in their original spelling. In case-insensitive mode, only one spelling
+     *     is included of keys which differ only in case.
+     */
+    @Nonnull
+    Collection<String> getKeys()
+    {
+        return foldedKeys == null ? keys : foldedKeys.values();
+    }
+}
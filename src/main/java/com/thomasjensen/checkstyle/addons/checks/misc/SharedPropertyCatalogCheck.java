@@ -0,0 +1,95 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+
+/**
+ * Companion of the {@link PropertyCatalogCheck} which reports orphans and duplicates across all property catalogs
+ * that share a property file, once all files of the audit have been analyzed. Only catalogs checked with
+ * <code>sharedPropertyFiles</code> are considered.
+ * <p><a href="http://checkstyle-addons.thomasjensen.com/latest/checks/misc.html#PropertyCatalog"
+ * target="_blank">Documentation</a></p>
+ */
+public class SharedPropertyCatalogCheck
+    extends AbstractFileSetCheck
+{
+    /** the index of the current audit, which the property catalog checks fill */
+    private PropertyCatalogIndex index = null;
+
+
+
+    @Override
+    public void beginProcessing(final String pCharset)
+    {
+        super.beginProcessing(pCharset);
+        index = PropertyCatalogIndex.beginAudit();
+    }
+
+
+
+    protected void processFiltered(final File pFile, final List<String> pLines)
+    {
+        // nothing to do, the catalogs are registered by the PropertyCatalogCheck
+    }
+
+
+
+    protected void processFiltered(final File pFile, final FileText pLines)
+    {
+        // nothing to do, the catalogs are registered by the PropertyCatalogCheck
+    }
+
+
+
+    @Override
+    public void finishProcessing()
+    {
+        if (index != null) {
+            index.endAudit();
+            String sourceFile = null;
+            for (final PropertyCatalogIndex.Finding finding : index.analyze()) {
+                if (sourceFile != null && !sourceFile.equals(finding.getSourceFile())) {
+                    fireErrors(sourceFile);
+                }
+                sourceFile = finding.getSourceFile();
+                log(finding.getLineNo(), finding.getMessageKey(), finding.getArgs());
+            }
+            if (sourceFile != null) {
+                fireErrors(sourceFile);
+            }
+            index = null;
+        }
+        super.finishProcessing();
+    }
+
+
+
+    @Override
+    public void destroy()
+    {
+        if (index != null) {
+            index.endAudit();   // the audit was aborted
+            index = null;
+        }
+        super.destroy();
+    }
+}
@@ -0,0 +1,143 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * Determines canonical file paths, resolving each directory only once. Canonicalization must consult the file system
+ * in order to resolve symbolic links, which can be slow, especially on network drives. Since the files checked by
+ * Checkstyle usually come in groups of siblings, the canonical paths of their parent directories are memoized, and the
+ * file name is appended.
+ * <p>The file name is used as is only if the file is not a symbolic link, and the directory listing contains it with
+ * exactly the same spelling. Otherwise, the file is canonicalized in full, so that symbolic links to files are
+ * resolved, and the case of the file name is corrected on case-insensitive file systems. The listings are memoized
+ * along with the directories. No assumptions are made about the case sensitivity of the file system.</p>
+ */
+@NotThreadSafe
+final class CanonicalPathResolver
+{
+    /** Map from absolute directory path to canonical directory path */
+    private final Map<String, String> canonicalDirs = new HashMap<>();
+
+    /** Map from canonical directory path to the names of the directory's entries, as spelled by the file system */
+    private final Map<String, Set<String>> dirEntries = new HashMap<>();
+
+
+
+    /**
+     * Determine the canonical path of the given file. If the file system cannot resolve it, the absolute path is
+     * returned instead.
+     *
+     * @param pFile a file
+     * @return the canonical path of the file
+     */
+    @Nonnull
+    String getCanonicalPath(@Nonnull final File pFile)
+    {
+        final File absoluteFile = pFile.getAbsoluteFile();
+        final String name = absoluteFile.getName();
+        final File parent = absoluteFile.getParentFile();
+        if (parent == null || name.isEmpty() || ".".equals(name) || "..".equals(name)) {
+            return canonicalize(absoluteFile);
+        }
+
+        final String parentPath = parent.getPath();
+        String canonicalParent = canonicalDirs.get(parentPath);
+        if (canonicalParent == null) {
+            canonicalParent = canonicalize(parent);
+            canonicalDirs.put(parentPath, canonicalParent);
+        }
+
+        final File result = new File(canonicalParent, name);
+        if (!getDirEntries(canonicalParent).contains(name) || isSymbolicLink(result)) {
+            return canonicalize(result);
+        }
+        return result.getPath();
+    }
+
+
+
+    @Nonnull
+    private Set<String> getDirEntries(@Nonnull final String pCanonicalDir)
+    {
+        Set<String> result = dirEntries.get(pCanonicalDir);
+        if (result == null) {
+            final String[] names = new File(pCanonicalDir).list();
+            if (names != null) {
+                result = new HashSet<>(Arrays.asList(names));
+            }
+            else {
+                result = Collections.emptySet();
+            }
+            dirEntries.put(pCanonicalDir, result);
+        }
+        return result;
+    }
+
+
+
+    private static boolean isSymbolicLink(@Nonnull final File pFile)
+    {
+        boolean result = false;
+        try {
+            result = Files.isSymbolicLink(pFile.toPath());
+        }
+        catch (InvalidPathException e) {
+            // not a valid path, so certainly not a symbolic link
+        }
+        return result;
+    }
+
+
+
+    @Nonnull
+    private static String canonicalize(@Nonnull final File pFile)
+    {
+        String result = null;
+        try {
+            result = pFile.getCanonicalPath();
+        }
+        catch (IOException e) {
+            result = pFile.getAbsolutePath();
+        }
+        return result;
+    }
+
+
+
+    /**
+     * Forget all memoized directories and their listings, so that changes to the file system are picked up.
+     */
+    void clear()
+    {
+        canonicalDirs.clear();
+        dirEntries.clear();
+    }
+}
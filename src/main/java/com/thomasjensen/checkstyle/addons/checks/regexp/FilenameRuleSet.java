@@ -0,0 +1,378 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * A set of file name rules, each of which works like one instance of the {@link RegexpOnFilenameOrgCheck}. All rules
+ * are applied to a file together: the canonical path is determined at most once, and the distinct selections of all
+ * rules are evaluated as one {@link PatternSet}, so that rules sharing a selection cost a single evaluation.
+ */
+@Immutable
+final class FilenameRuleSet
+{
+    /** the key of the message used for rules which define their own message text */
+    static final String MSG_CUSTOM = "regexp.filepath.custom";
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r\\n|\\r|\\n");
+
+    private final List<Rule> rules;
+
+    /** the distinct selections of all rules, each named after its regular expression */
+    private final PatternSet selections;
+
+    /** whether any rule needs the canonical path of the checked file */
+    private final boolean canonicalPathNeeded;
+
+
+
+    /**
+     * Called for each rule which a checked file violates.
+     */
+    interface Reporter
+    {
+        /**
+         * Report a rule violation.
+         *
+         * @param pRule the violated rule
+         * @param pFilePath the file name or canonical path, depending on the rule, which the rule's regexp was
+         *     applied to
+         */
+        void report(@Nonnull Rule pRule, @Nonnull String pFilePath);
+    }
+
+
+
+    /**
+     * A single file name rule.
+     */
+    @Immutable
+    static final class Rule
+    {
+        private final String name;
+
+        private final Pattern selection;
+
+        private final Pattern regexp;
+
+        private final LiteralPrefilter regexpPrefilter;
+
+        private final RegexpOnFilenameOrgOption mode;
+
+        private final boolean simple;
+
+        private final String message;
+
+
+
+        Rule(@Nonnull final String pName, @Nullable final Pattern pSelection, @Nonnull final Pattern pRegexp,
+            @Nonnull final RegexpOnFilenameOrgOption pMode, final boolean pSimple, @Nullable final String pMessage)
+        {
+            name = pName;
+            selection = pSelection;
+            regexp = pRegexp;
+            regexpPrefilter = LiteralPrefilter.forPattern(pRegexp);
+            mode = pMode;
+            simple = pSimple;
+            message = pMessage;
+        }
+
+
+
+        @Nonnull
+        String getName()
+        {
+            return name;
+        }
+
+
+
+        @CheckForNull
+        Pattern getSelection()
+        {
+            return selection;
+        }
+
+
+
+        @Nonnull
+        Pattern getRegexp()
+        {
+            return regexp;
+        }
+
+
+
+        @Nonnull
+        RegexpOnFilenameOrgOption getMode()
+        {
+            return mode;
+        }
+
+
+
+        boolean isSimple()
+        {
+            return simple;
+        }
+
+
+
+        /**
+         * Getter.
+         *
+         * @return the message to report when this rule is violated, or <code>null</code> to use the default message
+         */
+        @CheckForNull
+        String getMessage()
+        {
+            return message;
+        }
+
+
+
+        boolean isViolatedBy(@Nonnull final String pFilePath)
+        {
+            final boolean matches = regexpPrefilter.mayMatch(pFilePath) && regexp.matcher(pFilePath).find();
+            return matches == (mode == RegexpOnFilenameOrgOption.ILLEGAL);
+        }
+
+
+
+        /**
+         * Determine the key of the message to report when this rule is violated.
+         *
+         * @return the message key
+         */
+        @Nonnull
+        String getMessageKey()
+        {
+            if (message != null) {
+                return MSG_CUSTOM;
+            }
+            return "regexp.filepath." + mode.toString().toLowerCase(Locale.ENGLISH);
+        }
+
+
+
+        /**
+         * Determine the arguments of the message to report when this rule is violated.
+         *
+         * @param pFilePath the file name or canonical path which the regexp was applied to
+         * @return the message arguments, to go with {@link #getMessageKey()}
+         */
+        @Nonnull
+        Object[] getMessageArgs(@Nonnull final String pFilePath)
+        {
+            if (message != null) {
+                return new Object[]{MessageFormat.format(message, pFilePath, regexp.pattern(), name)};
+            }
+            return new Object[]{pFilePath, regexp.pattern()};
+        }
+    }
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pRules the rules, in the order in which violations shall be reported
+     */
+    FilenameRuleSet(@Nonnull final List<Rule> pRules)
+    {
+        rules = Collections.unmodifiableList(new ArrayList<>(pRules));
+
+        final Map<String, PatternSet.NamedPattern> distinct = new LinkedHashMap<>();
+        boolean needed = false;
+        for (final Rule rule : rules) {
+            final Pattern selection = rule.getSelection();
+            if (selection != null) {
+                if (!distinct.containsKey(selection.pattern())) {
+                    distinct.put(selection.pattern(), new PatternSet.NamedPattern(selection.pattern(), selection,
+                        null));
+                }
+                needed = true;
+            }
+            needed |= !rule.isSimple();
+        }
+        selections = new PatternSet(new ArrayList<>(distinct.values()));
+        canonicalPathNeeded = needed;
+    }
+
+
+
+    /**
+     * Parse a set of rule definitions. Each line defines one attribute of a rule in the form <code>name.attribute =
+     * value</code>, where the attribute is one of <code>selection</code>, <code>regexp</code>, <code>mode</code>,
+     * <code>simple</code>, and <code>message</code>. Only <code>regexp</code> is mandatory; the other attributes
+     * default to the defaults of the corresponding check properties. Empty lines and lines starting with
+     * <code>#</code> are ignored. Values are trimmed, unless they are enclosed in double quotes (see
+     * {@link #parseValue}).
+     *
+     * @param pDefinitions the rule definitions
+     * @return the rules, in the order of their first mention
+     * @throws IllegalArgumentException the definitions are malformed, or a regular expression or message is invalid
+     */
+    @Nonnull
+    static List<Rule> parse(@Nonnull final String pDefinitions)
+    {
+        final Map<String, Map<String, String>> attributesByRule = new LinkedHashMap<>();
+        for (final String rawLine : LINE_BREAK.split(pDefinitions)) {
+            final String line = rawLine.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            final int eqPos = line.indexOf('=');
+            final int dotPos = eqPos > 0 ? line.lastIndexOf('.', eqPos) : -1;
+            if (dotPos < 0) {
+                throw new IllegalArgumentException("Invalid rule definition: " + line);
+            }
+            final String name = line.substring(0, dotPos).trim();
+            final String attribute = line.substring(dotPos + 1, eqPos).trim();
+            if (!NAME_PATTERN.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid rule name: " + name);
+            }
+            Map<String, String> attributes = attributesByRule.get(name);
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+                attributesByRule.put(name, attributes);
+            }
+            if (attributes.put(attribute, parseValue(line.substring(eqPos + 1))) != null) {
+                throw new IllegalArgumentException("Duplicate rule definition: " + name + '.' + attribute);
+            }
+        }
+
+        final List<Rule> result = new ArrayList<>();
+        for (final Map.Entry<String, Map<String, String>> entry : attributesByRule.entrySet()) {
+            result.add(createRule(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+
+
+    /**
+     * Determine an attribute value from its definition. Leading and trailing whitespace is removed, unless the value
+     * is enclosed in double quotes, in which case only the quotes are removed. This allows for values which begin or
+     * end with whitespace, such as <code>" $"</code>. A value which itself begins and ends with a double quote must be
+     * enclosed in another pair of double quotes.
+     *
+     * @param pDefinition the text after the equals sign
+     * @return the value
+     */
+    @Nonnull
+    static String parseValue(@Nonnull final String pDefinition)
+    {
+        final String result = pDefinition.trim();
+        if (result.length() >= 2 && result.charAt(0) == '"' && result.charAt(result.length() - 1) == '"') {
+            return result.substring(1, result.length() - 1);
+        }
+        return result;
+    }
+
+
+
+    @Nonnull
+    private static Rule createRule(@Nonnull final String pName, @Nonnull final Map<String, String> pAttributes)
+    {
+        final Map<String, String> attributes = new LinkedHashMap<>(pAttributes);
+        final String regexp = attributes.remove("regexp");
+        if (regexp == null || regexp.isEmpty()) {
+            throw new IllegalArgumentException("Rule '" + pName + "' lacks a regexp");
+        }
+        final String selection = attributes.remove("selection");
+        final String mode = attributes.remove("mode");
+        final String simple = attributes.remove("simple");
+        final String message = attributes.remove("message");
+        if (!attributes.isEmpty()) {
+            throw new IllegalArgumentException("Unknown attribute of rule '" + pName + "': "
+                + attributes.keySet().iterator().next());
+        }
+        if (simple != null && !"true".equalsIgnoreCase(simple) && !"false".equalsIgnoreCase(simple)) {
+            throw new IllegalArgumentException("Invalid value of " + pName + ".simple: " + simple);
+        }
+        if (message != null) {
+            new MessageFormat(message);   // fail early if the message is invalid
+        }
+        return new Rule(pName, selection != null && !selection.isEmpty() ? Pattern.compile(selection) : null,
+            Pattern.compile(regexp),
+            mode != null ? RegexpOnFilenameOrgOption.valueOfIgnoreCase(mode) : RegexpOnFilenameOrgOption.ILLEGAL,
+            simple == null || Boolean.parseBoolean(simple), message);
+    }
+
+
+
+    /**
+     * Apply all rules to the given file.
+     *
+     * @param pFile the file to check
+     * @param pPathResolver determines the canonical path of the file, if needed
+     * @param pReporter called for each violated rule, in the order of the rules
+     * @return the number of violations reported
+     */
+    int apply(@Nonnull final File pFile, @Nonnull final CanonicalPathResolver pPathResolver,
+        @Nonnull final Reporter pReporter)
+    {
+        final String canonicalPath = canonicalPathNeeded ? pPathResolver.getCanonicalPath(pFile) : null;
+        Set<String> selected = Collections.emptySet();
+        if (canonicalPath != null && !selections.getPatterns().isEmpty()) {
+            selected = new HashSet<>();
+            for (final PatternSet.NamedPattern selection : selections.findMatches(canonicalPath)) {
+                selected.add(selection.getName());
+            }
+        }
+
+        int result = 0;
+        for (final Rule rule : rules) {
+            final Pattern selection = rule.getSelection();
+            if (selection == null || selected.contains(selection.pattern())) {
+                final String filePath = rule.isSimple() ? pFile.getName() : canonicalPath;
+                if (filePath != null && rule.isViolatedBy(filePath)) {
+                    pReporter.report(rule, filePath);
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+
+
+    @Nonnull
+    List<Rule> getRules()
+    {
+        return rules;
+    }
+}
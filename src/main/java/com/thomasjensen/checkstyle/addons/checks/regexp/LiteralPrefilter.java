@@ -0,0 +1,331 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * The literal substrings which any match of a regular expression must contain. Checking a text for these substrings
+ * is much cheaper than running the regular expression, so texts which lack one of them can be rejected early.
+ * <p>The literals are extracted conservatively from the top level of the expression. Groups, character classes,
+ * quantified characters, and escape sequences other than escaped punctuation end a literal. Expressions which contain a
+ * top-level alternation or which change the case sensitivity or comments mode yield no literals at all, so that the
+ * prefilter never rejects a text which the expression would match.</p>
+ */
+@Immutable
+final class LiteralPrefilter
+{
+    /** a prefilter without literals, which accepts every text */
+    static final LiteralPrefilter NONE = new LiteralPrefilter(Collections.<String>emptyList());
+
+    private static final String METACHARS = "\\[](){}.*+?^$|";
+
+    /** letters which form an escape sequence of fixed length that matches something other than a literal */
+    private static final String SIMPLE_ESCAPES = "dDsSwWbBAzZGhHvVRXtnrfae";
+
+    /** the required literals, longest first, because the longest literal is the least likely to be present */
+    private final List<String> literals;
+
+
+
+    private LiteralPrefilter(@Nonnull final List<String> pLiterals)
+    {
+        literals = pLiterals;
+    }
+
+
+
+    /**
+     * Determine the literals required by the given regular expression.
+     *
+     * @param pPattern a regular expression, which is applied using {@link java.util.regex.Matcher#find()}
+     * @return the prefilter for the expression, which may be {@link #NONE}
+     */
+    @Nonnull
+    static LiteralPrefilter forPattern(@Nonnull final Pattern pPattern)
+    {
+        final int flags = pPattern.flags();
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.CANON_EQ)) != 0) {
+            return NONE;   // a matching text need not contain the literals as written
+        }
+        if ((flags & Pattern.LITERAL) != 0) {
+            return create(Collections.singleton(pPattern.pattern()));
+        }
+        if ((flags & Pattern.COMMENTS) != 0) {
+            return NONE;
+        }
+        final Set<String> found = extractLiterals(pPattern.pattern());
+        return found != null ? create(found) : NONE;
+    }
+
+
+
+    @Nonnull
+    private static LiteralPrefilter create(@Nonnull final Set<String> pLiterals)
+    {
+        final List<String> list = new ArrayList<>();
+        for (final String literal : pLiterals) {
+            if (literal.length() > 0) {
+                list.add(literal);
+            }
+        }
+        if (list.isEmpty()) {
+            return NONE;
+        }
+        Collections.sort(list, new Comparator<String>()
+        {
+            @Override
+            public int compare(final String pLiteral1, final String pLiteral2)
+            {
+                return Integer.compare(pLiteral2.length(), pLiteral1.length());
+            }
+        });
+        return new LiteralPrefilter(Collections.unmodifiableList(list));
+    }
+
+
+
+    /**
+     * Scan the top level of a regular expression for literal runs.
+     *
+     * @param pRegexp the regular expression
+     * @return the literals found, or <code>null</code> if the expression must not be prefiltered
+     */
+    private static Set<String> extractLiterals(@Nonnull final String pRegexp)
+    {
+        final Set<String> result = new LinkedHashSet<>();
+        final StringBuilder current = new StringBuilder();
+        final int len = pRegexp.length();
+        int i = 0;
+        while (i < len) {
+            final char c = pRegexp.charAt(i);
+            if (c == '|') {
+                return null;   // top-level alternation, so no single literal is required
+            }
+            else if (c == '(') {
+                if (isFlagGroup(pRegexp, i)) {
+                    return null;   // the flags might make the rest of the expression case insensitive
+                }
+                endLiteral(current, result);
+                i = skipGroup(pRegexp, i);
+            }
+            else if (c == '[') {
+                endLiteral(current, result);
+                i = skipClass(pRegexp, i);
+            }
+            else if (c == '\\' && i + 1 < len) {
+                final char next = pRegexp.charAt(i + 1);
+                if (next == 'Q') {
+                    final int end = pRegexp.indexOf("\\E", i + 2);
+                    current.append(pRegexp, i + 2, end >= 0 ? end : len);
+                    i = end >= 0 ? end + 2 : len;
+                }
+                else if (SIMPLE_ESCAPES.indexOf(next) >= 0) {
+                    endLiteral(current, result);   // predefined character class or boundary matcher
+                    i += 2;
+                }
+                else if (next == 'p' || next == 'P') {
+                    endLiteral(current, result);   // Unicode character class
+                    i = i + 2 < len && pRegexp.charAt(i + 2) == '{' ? skipTo(pRegexp, i, '}') : i + 3;
+                }
+                else if (Character.isLetterOrDigit(next)) {
+                    return null;   // back reference or encoded character; too rare to be worth decoding
+                }
+                else {
+                    current.append(next);
+                    i += 2;
+                }
+            }
+            else if (c == '?' || c == '*' || c == '+' || c == '{') {
+                // The quantified character is optional or repeated, so the literal ends before it.
+                if (current.length() > 0) {
+                    current.setLength(current.length() - 1);
+                }
+                endLiteral(current, result);
+                i = c == '{' ? skipTo(pRegexp, i, '}') : i + 1;
+            }
+            else if (METACHARS.indexOf(c) >= 0) {
+                endLiteral(current, result);
+                i++;
+            }
+            else {
+                current.append(c);
+                i++;
+            }
+        }
+        endLiteral(current, result);
+        return result;
+    }
+
+
+
+    private static void endLiteral(@Nonnull final StringBuilder pCurrent, @Nonnull final Set<String> pResult)
+    {
+        if (pCurrent.length() > 0) {
+            pResult.add(pCurrent.toString());
+            pCurrent.setLength(0);
+        }
+    }
+
+
+
+    private static boolean isFlagGroup(@Nonnull final String pRegexp, final int pPos)
+    {
+        return pPos + 2 < pRegexp.length() && pRegexp.charAt(pPos + 1) == '?'
+            && (Character.isLetter(pRegexp.charAt(pPos + 2)) || pRegexp.charAt(pPos + 2) == '-')
+            && pRegexp.indexOf(')', pPos) < indexOfOrLength(pRegexp, ':', pPos);
+    }
+
+
+
+    private static int indexOfOrLength(@Nonnull final String pRegexp, final char pChar, final int pFromIndex)
+    {
+        final int result = pRegexp.indexOf(pChar, pFromIndex);
+        return result >= 0 ? result : pRegexp.length();
+    }
+
+
+
+    /**
+     * Skip a group, including any nested groups, character classes, and quoted sections.
+     *
+     * @param pRegexp the regular expression
+     * @param pPos the position of the opening parenthesis
+     * @return the position after the closing parenthesis
+     */
+    private static int skipGroup(@Nonnull final String pRegexp, final int pPos)
+    {
+        int depth = 0;
+        int i = pPos;
+        while (i < pRegexp.length()) {
+            final char c = pRegexp.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(pRegexp, i);
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(pRegexp, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            }
+            else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return i;
+    }
+
+
+
+    /**
+     * Skip a character class, including nested classes.
+     *
+     * @param pRegexp the regular expression
+     * @param pPos the position of the opening bracket
+     * @return the position after the closing bracket
+     */
+    private static int skipClass(@Nonnull final String pRegexp, final int pPos)
+    {
+        int depth = 0;
+        int i = pPos;
+        while (i < pRegexp.length()) {
+            final char c = pRegexp.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(pRegexp, i);
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // A closing bracket right at the start of a class is a literal.
+                if (i + 1 < pRegexp.length() && pRegexp.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < pRegexp.length() && pRegexp.charAt(i + 1) == ']') {
+                    i++;
+                }
+            }
+            else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return i;
+    }
+
+
+
+    private static int skipEscape(@Nonnull final String pRegexp, final int pPos)
+    {
+        if (pPos + 1 < pRegexp.length() && pRegexp.charAt(pPos + 1) == 'Q') {
+            final int end = pRegexp.indexOf("\\E", pPos + 2);
+            return end >= 0 ? end + 2 : pRegexp.length();
+        }
+        return pPos + 2;
+    }
+
+
+
+    private static int skipTo(@Nonnull final String pRegexp, final int pPos, final char pChar)
+    {
+        return indexOfOrLength(pRegexp, pChar, pPos) + 1;
+    }
+
+
+
+    /**
+     * Determine if the regular expression might match the given text.
+     *
+     * @param pText the text
+     * @return <code>false</code> if the text lacks one of the required literals, so that the regular expression
+     *     cannot possibly match; <code>true</code> otherwise
+     */
+    boolean mayMatch(@Nonnull final String pText)
+    {
+        for (final String literal : literals) {
+            if (!pText.contains(literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    @Nonnull
+    List<String> getLiterals()
+    {
+        return literals;
+    }
+}
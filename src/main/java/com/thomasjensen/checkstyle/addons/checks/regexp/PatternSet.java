@@ -0,0 +1,339 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.jcip.annotations.Immutable;
+
+
+/**
+ * A set of regular expressions which are applied to a text together. The patterns are combined into one alternation,
+ * so that texts which match none of the patterns (by far the most common case) are rejected in a single pass, no
+ * matter how many patterns there are. Only when the alternation matches are the patterns evaluated individually, so
+ * that every matching pattern is reported.
+ * <p>Patterns which cannot safely be embedded in an alternation (because they contain back references, named groups,
+ * or comments) are always evaluated individually.</p>
+ * <p>Before any regular expression is run, the text is checked for the literal substrings which each pattern
+ * requires (see {@link LiteralPrefilter}). Patterns whose literals are missing from the text are skipped.</p>
+ */
+@Immutable
+final class PatternSet
+{
+    /** the suffix of the keys in a pattern definition which define a message instead of a pattern */
+    private static final String MESSAGE_SUFFIX = ".message";
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r\\n|\\r|\\n");
+
+    private final List<NamedPattern> patterns;
+
+    /** the alternation of all combinable patterns, or <code>null</code> if there are fewer than two of them */
+    private final Pattern combined;
+
+    /** for each pattern, the number of the capturing group which wraps it in {@link #combined}, or -1 */
+    private final int[] groupNumbers;
+
+
+
+    /**
+     * A regular expression, along with its name and optional message.
+     */
+    @Immutable
+    static final class NamedPattern
+    {
+        private final String name;
+
+        private final Pattern pattern;
+
+        private final String message;
+
+        private final LiteralPrefilter prefilter;
+
+
+
+        NamedPattern(@Nullable final String pName, @Nonnull final Pattern pPattern, @Nullable final String pMessage)
+        {
+            name = pName;
+            pattern = pPattern;
+            message = pMessage;
+            prefilter = LiteralPrefilter.forPattern(pPattern);
+        }
+
+
+
+        /**
+         * Getter.
+         *
+         * @return the name of the pattern, or <code>null</code> for the pattern given by the <code>regexp</code>
+         *     property
+         */
+        @CheckForNull
+        String getName()
+        {
+            return name;
+        }
+
+
+
+        @Nonnull
+        Pattern getPattern()
+        {
+            return pattern;
+        }
+
+
+
+        /**
+         * Getter.
+         *
+         * @return the message to report when this pattern matches, or <code>null</code> to use the default message
+         */
+        @CheckForNull
+        String getMessage()
+        {
+            return message;
+        }
+
+
+
+        @Nonnull
+        LiteralPrefilter getPrefilter()
+        {
+            return prefilter;
+        }
+    }
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pPatterns the patterns, in the order in which matches shall be reported
+     */
+    PatternSet(@Nonnull final List<NamedPattern> pPatterns)
+    {
+        patterns = Collections.unmodifiableList(new ArrayList<>(pPatterns));
+        groupNumbers = new int[patterns.size()];
+
+        final StringBuilder sb = new StringBuilder();
+        int numCombinable = 0;
+        int groupNumber = 1;
+        for (int i = 0; i < patterns.size(); i++) {
+            final Pattern pattern = patterns.get(i).getPattern();
+            if (isCombinable(pattern.pattern())) {
+                if (sb.length() > 0) {
+                    sb.append('|');
+                }
+                sb.append('(').append(pattern.pattern()).append(')');
+                groupNumbers[i] = groupNumber;
+                groupNumber += 1 + pattern.matcher("").groupCount();
+                numCombinable++;
+            }
+            else {
+                groupNumbers[i] = -1;
+            }
+        }
+
+        Pattern alternation = null;
+        if (numCombinable > 1) {
+            try {
+                alternation = Pattern.compile(sb.toString());
+            }
+            catch (PatternSyntaxException e) {
+                alternation = null;   // evaluate all patterns individually
+            }
+        }
+        combined = alternation;
+        if (combined == null) {
+            for (int i = 0; i < groupNumbers.length; i++) {
+                groupNumbers[i] = -1;
+            }
+        }
+    }
+
+
+
+    /**
+     * Parse a set of pattern definitions. Each line defines either a pattern (<code>name = regexp</code>) or the
+     * message of a pattern (<code>name.message = text</code>). Empty lines and lines starting with <code>#</code> are
+     * ignored.
+     *
+     * @param pDefinitions the pattern definitions
+     * @return the named patterns, in the order of their definition
+     * @throws IllegalArgumentException the definitions are malformed, or a regular expression or message is invalid
+     */
+    @Nonnull
+    static List<NamedPattern> parse(@Nonnull final String pDefinitions)
+    {
+        final Map<String, String> regexps = new LinkedHashMap<>();
+        final Map<String, String> messages = new LinkedHashMap<>();
+        for (final String rawLine : LINE_BREAK.split(pDefinitions)) {
+            final String line = rawLine.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            final int eqPos = line.indexOf('=');
+            if (eqPos < 0) {
+                throw new IllegalArgumentException("Invalid pattern definition: " + line);
+            }
+            final String key = line.substring(0, eqPos).trim();
+            final String value = line.substring(eqPos + 1).trim();
+            final boolean isMessage = key.endsWith(MESSAGE_SUFFIX);
+            final String name = isMessage ? key.substring(0, key.length() - MESSAGE_SUFFIX.length()) : key;
+            if (!NAME_PATTERN.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid pattern name: " + key);
+            }
+            final Map<String, String> target = isMessage ? messages : regexps;
+            if (target.put(name, value) != null) {
+                throw new IllegalArgumentException("Duplicate pattern definition: " + key);
+            }
+        }
+
+        for (final Map.Entry<String, String> entry : messages.entrySet()) {
+            if (!regexps.containsKey(entry.getKey())) {
+                throw new IllegalArgumentException("Message given for undefined pattern: " + entry.getKey());
+            }
+            new MessageFormat(entry.getValue());   // fail early if the message is invalid
+        }
+        final List<NamedPattern> result = new ArrayList<>();
+        for (final Map.Entry<String, String> entry : regexps.entrySet()) {
+            result.add(new NamedPattern(entry.getKey(), Pattern.compile(entry.getValue()),
+                messages.get(entry.getKey())));
+        }
+        return result;
+    }
+
+
+
+    /**
+     * Determine if the given regular expression can be embedded in an alternation without changing its meaning. This
+     * is a conservative test; in case of doubt, the pattern is not combinable.
+     *
+     * @param pRegexp a regular expression
+     * @return <code>true</code> if combinable
+     */
+    static boolean isCombinable(@Nonnull final String pRegexp)
+    {
+        final int len = pRegexp.length();
+        for (int i = 0; i < len; i++) {
+            final char c = pRegexp.charAt(i);
+            if (c == '\\' && i + 1 < len) {
+                final char next = pRegexp.charAt(i + 1);
+                if (next == 'k' || (next >= '1' && next <= '9')) {
+                    return false;   // back reference, which would refer to a different group when combined
+                }
+                if (next == 'Q') {
+                    final int end = pRegexp.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return false;   // quotation extends to the end of the pattern
+                    }
+                    i = end + 1;
+                }
+                else {
+                    i++;
+                }
+            }
+            else if (c == '(' && i + 2 < len && pRegexp.charAt(i + 1) == '?') {
+                final char next = pRegexp.charAt(i + 2);
+                if (next == '<' && i + 3 < len && Character.isLetter(pRegexp.charAt(i + 3))) {
+                    return false;   // named group, whose name might be used by another pattern
+                }
+                for (int j = i + 2; j < len && Character.isLetter(pRegexp.charAt(j)); j++) {
+                    if (pRegexp.charAt(j) == 'x') {
+                        return false;   // comments might swallow the rest of the alternation
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+
+
+    /**
+     * Find the patterns which match the given text.
+     *
+     * @param pText the text to examine
+     * @return the matching patterns in the order of their definition, or an empty list if none match
+     */
+    @Nonnull
+    List<NamedPattern> findMatches(@Nonnull final String pText)
+    {
+        int numCandidates = 0;
+        for (final NamedPattern namedPattern : patterns) {
+            if (namedPattern.getPrefilter().mayMatch(pText)) {
+                numCandidates++;
+            }
+        }
+        if (numCandidates == 0) {
+            return Collections.emptyList();
+        }
+
+        int knownMatch = -1;
+        final boolean useCombined = combined != null && numCandidates > 1;
+        if (useCombined) {
+            final Matcher matcher = combined.matcher(pText);
+            if (matcher.find()) {
+                for (int i = 0; i < groupNumbers.length; i++) {
+                    if (groupNumbers[i] > 0 && matcher.start(groupNumbers[i]) >= 0) {
+                        knownMatch = i;
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<NamedPattern> result = Collections.emptyList();
+        for (int i = 0; i < patterns.size(); i++) {
+            final NamedPattern namedPattern = patterns.get(i);
+            boolean match = false;
+            if (i == knownMatch) {
+                match = true;
+            }
+            else if (!useCombined || groupNumbers[i] < 0 || knownMatch >= 0) {
+                match = namedPattern.getPrefilter().mayMatch(pText) && namedPattern.getPattern().matcher(pText).find();
+            }
+            if (match) {
+                if (result.isEmpty()) {
+                    result = new ArrayList<>();
+                }
+                result.add(namedPattern);
+            }
+        }
+        return result;
+    }
+
+
+
+    @Nonnull
+    List<NamedPattern> getPatterns()
+    {
+        return patterns;
+    }
+}
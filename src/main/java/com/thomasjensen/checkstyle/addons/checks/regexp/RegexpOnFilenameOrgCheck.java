@@ -16,11 +16,11 @@ package com.thomasjensen.checkstyle.addons.checks.regexp;
  */
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
@@ -40,6 +40,9 @@ public class RegexpOnFilenameOrgCheck
      */
     private Pattern selection;
 
+    /** the literals required by {@link #selection} */
+    private LiteralPrefilter selectionPrefilter = LiteralPrefilter.NONE;
+
     /** mode of operation (required or illegal) */
     private RegexpOnFilenameOrgOption mode = RegexpOnFilenameOrgOption.ILLEGAL;
 
@@ -50,11 +53,29 @@ public class RegexpOnFilenameOrgCheck
     private boolean simple = true;
 
     /** the default regexp detects leading and trailing whitespace */
-    private static final Pattern REGEXP_DEFAULT = Pattern.compile("^(?:\\s+.*|.*?\\s+)$");
+    static final Pattern REGEXP_DEFAULT = Pattern.compile("^(?:\\s+.*|.*?\\s+)$");
 
     /** the given regexp */
     private Pattern regexp = REGEXP_DEFAULT;
 
+    /** the literals required by {@link #regexp} */
+    private LiteralPrefilter regexpPrefilter = LiteralPrefilter.forPattern(REGEXP_DEFAULT);
+
+    /** determines canonical file paths, memoizing the canonical paths of directories during a run */
+    private final CanonicalPathResolver pathResolver = new CanonicalPathResolver();
+
+    /** the rules given via the <code>rules</code> property, which replace the individual properties if present */
+    private FilenameRuleSet ruleSet = null;
+
+    private final FilenameRuleSet.Reporter ruleReporter = new FilenameRuleSet.Reporter()
+    {
+        @Override
+        public void report(@Nonnull final FilenameRuleSet.Rule pRule, @Nonnull final String pFilePath)
+        {
+            log(1, pRule.getMessageKey(), pRule.getMessageArgs(pFilePath));
+        }
+    };
+
 
 
     /**
@@ -66,6 +87,7 @@ public class RegexpOnFilenameOrgCheck
     {
         if (pSelection != null && pSelection.length() > 0) {
             selection = Pattern.compile(pSelection);
+            selectionPrefilter = LiteralPrefilter.forPattern(selection);
         }
     }
 
@@ -94,27 +116,59 @@ public class RegexpOnFilenameOrgCheck
     {
         if (pRegexp != null && pRegexp.length() > 0) {
             regexp = Pattern.compile(pRegexp);
+            regexpPrefilter = LiteralPrefilter.forPattern(regexp);
         }
     }
 
 
 
+    /**
+     * Setter.
+     *
+     * @param pRules rule definitions, one attribute per line in the form <code>name.attribute = value</code>
+     */
+    public void setRules(final String pRules)
+    {
+        ruleSet = pRules != null && pRules.trim().length() > 0 ? new FilenameRuleSet(FilenameRuleSet.parse(pRules))
+            : null;
+    }
+
+
+
+    @Override
+    public void beginProcessing(final String pCharset)
+    {
+        super.beginProcessing(pCharset);
+        pathResolver.clear();
+    }
+
+
+
     protected void processFiltered(final File pFile, final List<String> pLines)
     {
-        String filePath = null;
-        try {
-            filePath = pFile.getCanonicalPath();
+        if (ruleSet != null) {
+            ruleSet.apply(pFile, pathResolver, ruleReporter);
+            return;
         }
-        catch (IOException e) {
-            filePath = pFile.getAbsolutePath();
+
+        // The canonical path is only determined when needed, because it may require file system access.
+        String filePath = null;
+        boolean selected = true;
+        if (selection != null) {
+            filePath = pathResolver.getCanonicalPath(pFile);
+            selected = selectionPrefilter.mayMatch(filePath) && selection.matcher(filePath).find();
         }
 
         boolean ok = true;
-        if (selection == null || selection.matcher(filePath).find()) {
+        if (selected) {
             if (simple) {
                 filePath = pFile.getName();
             }
-            ok = regexp.matcher(filePath).find() ^ (mode == RegexpOnFilenameOrgOption.ILLEGAL);
+            else if (filePath == null) {
+                filePath = pathResolver.getCanonicalPath(pFile);
+            }
+            final boolean matches = regexpPrefilter.mayMatch(filePath) && regexp.matcher(filePath).find();
+            ok = matches ^ (mode == RegexpOnFilenameOrgOption.ILLEGAL);
         }
 
         if (!ok) {
@@ -0,0 +1,257 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import com.thomasjensen.checkstyle.addons.util.AbstractPathScanner;
+
+// @formatter:off
+/**
+ * Applies file name rules like the {@link RegexpOnFilenameOrgCheck} to a directory tree or to a list of files, without
+ * going through Checkstyle. Only the file paths are inspected, so no file is ever opened. This is much faster than
+ * running the check on large trees of binary files or resources, which Checkstyle would read in full.
+ * <p>The scanner is configured via the same properties as the check: <code>selection</code>, <code>regexp</code>,
+ * <code>mode</code>, <code>simple</code>, and <code>fileExtensions</code>, or alternatively <code>rules</code>.</p>
+ * <p>Call from command line: <code>java -cp checkstyle-addons-x.x.x-all.jar;checkstyle-7.0-all.jar
+ * com.thomasjensen.checkstyle.addons.checks.regexp.RegexpOnFilenameOrgScanner path/to/config.txt path/to/dir</code>.
+ * The configuration file contains one property per line in the form <code>property = value</code>; lines in the
+ * form <code>name.attribute = value</code> are rule definitions as in the <code>rules</code> property. Instead of a
+ * directory, <code>-</code> may be given in order to read the list of files from standard input, one per line, as
+ * produced by <code>git ls-files</code>.</p>
+ */ // @formatter:on
+@NotThreadSafe
+public final class RegexpOnFilenameOrgScanner
+    extends AbstractPathScanner
+{
+    private static final String BUNDLE_NAME = RegexpOnFilenameOrgScanner.class.getPackage().getName() + ".messages";
+
+    /** the name of the rule which is made from the individual properties */
+    private static final String DEFAULT_RULE_NAME = "default";
+
+    private Pattern selection = null;
+
+    private RegexpOnFilenameOrgOption mode = RegexpOnFilenameOrgOption.ILLEGAL;
+
+    private boolean simple = true;
+
+    private Pattern regexp = RegexpOnFilenameOrgCheck.REGEXP_DEFAULT;
+
+    /** the rules given via the <code>rules</code> property, which replace the individual properties if present */
+    private FilenameRuleSet rules = null;
+
+    /** the rules applied by the current scan */
+    private FilenameRuleSet ruleSet = null;
+
+    private final CanonicalPathResolver pathResolver = new CanonicalPathResolver();
+
+    private final FilenameRuleSet.Reporter ruleReporter = new FilenameRuleSet.Reporter()
+    {
+        @Override
+        public void report(@Nonnull final FilenameRuleSet.Rule pRule, @Nonnull final String pFilePath)
+        {
+            reportViolation(pRule.getMessageKey(), pRule.getMessageArgs(pFilePath));
+        }
+    };
+
+
+
+    /**
+     * Constructor. Without further configuration, the scanner works like the check with its default properties.
+     */
+    public RegexpOnFilenameOrgScanner()
+    {
+        super("RegexpOnFilenameOrg", BUNDLE_NAME);
+    }
+
+
+
+    public void setSelection(final String pSelection)
+    {
+        if (pSelection != null && pSelection.length() > 0) {
+            selection = Pattern.compile(pSelection);
+        }
+    }
+
+
+
+    public void setMode(final String pMode)
+    {
+        mode = RegexpOnFilenameOrgOption.valueOfIgnoreCase(pMode);
+    }
+
+
+
+    public void setSimple(final boolean pSimple)
+    {
+        simple = pSimple;
+    }
+
+
+
+    public void setRegexp(final String pRegexp)
+    {
+        if (pRegexp != null && pRegexp.length() > 0) {
+            regexp = Pattern.compile(pRegexp);
+        }
+    }
+
+
+
+    /**
+     * Setter.
+     *
+     * @param pRules rule definitions, one attribute per line in the form <code>name.attribute = value</code>
+     * @throws IllegalArgumentException the rule definitions are invalid
+     */
+    public void setRules(final String pRules)
+    {
+        rules = pRules != null && pRules.trim().length() > 0 ? new FilenameRuleSet(FilenameRuleSet.parse(pRules))
+            : null;
+    }
+
+
+
+    /**
+     * Set a property by its name, as it would appear in a Checkstyle configuration.
+     *
+     * @param pName the property name
+     * @param pValue the property value
+     * @throws IllegalArgumentException unknown property, or invalid value
+     */
+    void setProperty(@Nonnull final String pName, @Nonnull final String pValue)
+    {
+        if ("selection".equals(pName)) {
+            setSelection(pValue);
+        }
+        else if ("regexp".equals(pName)) {
+            setRegexp(pValue);
+        }
+        else if ("mode".equals(pName)) {
+            setMode(pValue);
+        }
+        else if ("simple".equals(pName)) {
+            if (!"true".equalsIgnoreCase(pValue) && !"false".equalsIgnoreCase(pValue)) {
+                throw new IllegalArgumentException("Invalid value of simple: " + pValue);
+            }
+            setSimple(Boolean.parseBoolean(pValue));
+        }
+        else if ("fileExtensions".equals(pName)) {
+            setFileExtensions(pValue.trim().isEmpty() ? new String[0] : pValue.split(","));
+        }
+        else if ("rules".equals(pName)) {
+            setRules(pValue);
+        }
+        else {
+            throw new IllegalArgumentException("Unknown property: " + pName);
+        }
+    }
+
+
+
+    /**
+     * Configure this scanner from the contents of a configuration file. Each line sets one property in the form
+     * <code>property = value</code>. Lines in the form <code>name.attribute = value</code> are collected into the
+     * <code>rules</code> property. Empty lines and lines starting with <code>#</code> are ignored. Values may be
+     * enclosed in double quotes like in the rules.
+     *
+     * @param pConfig the contents of the configuration file
+     * @throws IllegalArgumentException the configuration is invalid
+     */
+    void configure(@Nonnull final String pConfig)
+    {
+        final StringBuilder ruleDefinitions = new StringBuilder();
+        for (final String rawLine : pConfig.split("\\r\\n|\\r|\\n")) {
+            final String line = rawLine.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            final int eqPos = line.indexOf('=');
+            if (eqPos < 0) {
+                throw new IllegalArgumentException("Invalid configuration line: " + line);
+            }
+            final String name = line.substring(0, eqPos).trim();
+            if (name.indexOf('.') >= 0) {
+                ruleDefinitions.append(rawLine).append('\n');
+            }
+            else {
+                setProperty(name, FilenameRuleSet.parseValue(line.substring(eqPos + 1)));
+            }
+        }
+        if (ruleDefinitions.length() > 0) {
+            setRules(ruleDefinitions.toString());
+        }
+    }
+
+
+
+    @Override
+    protected void beginScan()
+    {
+        pathResolver.clear();
+        if (rules != null) {
+            ruleSet = rules;
+        }
+        else {
+            ruleSet = new FilenameRuleSet(Collections.singletonList(
+                new FilenameRuleSet.Rule(DEFAULT_RULE_NAME, selection, regexp, mode, simple, null)));
+        }
+    }
+
+
+
+    @Override
+    protected void check(@Nonnull final File pFile, final boolean pCanonical)
+    {
+        ruleSet.apply(pFile, pathResolver, ruleReporter);
+    }
+
+
+
+    /**
+     * Main.
+     *
+     * @param pArgs command-line arguments: the configuration file, and the directory to scan or <code>-</code> to
+     *     read the list of files from standard input
+     */
+    public static void main(@Nonnull final String[] pArgs)
+    {
+        if (pArgs.length < 2) {
+            exitWithUsage("RegexpOnFilenameOrgScanner <config file> <directory>|-");
+        }
+
+        runFromCommandLine(new Factory()
+        {
+            @Override
+            @Nonnull
+            public AbstractPathScanner create()
+                throws IOException
+            {
+                final RegexpOnFilenameOrgScanner result = new RegexpOnFilenameOrgScanner();
+                result.configure(new String(Files.readAllBytes(new File(pArgs[0]).toPath()), StandardCharsets.UTF_8));
+                return result;
+            }
+        }, pArgs[1]);
+    }
+}
@@ -15,6 +15,7 @@ package com.thomasjensen.checkstyle.addons.checks.regexp;
  * program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -48,28 +49,43 @@ public class RegexpOnStringCheck
     /** the given regexp */
     private Pattern regexp = Util.NEVER_MATCH;
 
+    /** the patterns given via the <code>patterns</code> property */
+    private List<PatternSet.NamedPattern> namedPatterns = Collections.emptyList();
 
+    /** all patterns applied by this check, combined for evaluation in a single pass */
+    private PatternSet patternSet = new PatternSet(Collections.<PatternSet.NamedPattern>emptyList());
 
-    /** An occurrence of a String found in a Java source file, together with its first AST. */
-    private static class FoundString
+
+
+    /** the run of concatenated String literals currently being collected, reused across expressions */
+    private final LiteralRun currentRun = new LiteralRun();
+
+
+
+    /** A run of String literals concatenated by <code>+</code>, together with the AST of its first literal. */
+    private static final class LiteralRun
     {
-        private final StringBuilder sb;
+        private final StringBuilder sb = new StringBuilder();
 
-        private final DetailAST ast;
+        private DetailAST ast = null;
 
 
 
-        public FoundString(@Nonnull final String pString, @Nonnull final DetailAST pAst)
+        public void add(@Nonnull final DetailAST pLiteralAst)
         {
-            sb = new StringBuilder(pString);
-            ast = pAst;
+            if (ast == null) {
+                ast = pLiteralAst;
+            }
+            final String literal = pLiteralAst.getText();
+            sb.append(literal, 1, literal.length() - 1);   // without the quotes
         }
 
 
 
-        public void addString(@Nonnull final String pString)
+        public void clear()
         {
-            sb.append(pString);
+            sb.setLength(0);
+            ast = null;
         }
 
 
@@ -82,7 +98,7 @@ public class RegexpOnStringCheck
 
 
 
-        @Nonnull
+        @CheckForNull
         public DetailAST getAst()
         {
             return ast;
@@ -103,142 +119,168 @@ public class RegexpOnStringCheck
     @Override
     protected void visitToken(@Nullable final BinaryName pBinaryClassName, @Nonnull final DetailAST pAst)
     {
+        if (patternSet.getPatterns().isEmpty()) {
+            return;
+        }
         final DetailAST ast = getExprAst(pAst);
-        if (ast != null && containsStringLiteral(ast)) {
-            final List<FoundString> foundStrings = findAllStrings(ast);
-            for (final FoundString foundString : foundStrings) {
-                final String text = foundString.getString();
-                if (regexp.matcher(text).find()) {
-                    log(foundString.getAst(), "regexp.string", clipText(text), regexp);
+        if (ast != null) {
+            checkLiteralRuns(ast);
+        }
+    }
+
+
+
+    /**
+     * Traverse the given expression in source order, applying the patterns to every run of String literals which are
+     * concatenated by <code>+</code>. Any other token ends the current run. Nested EXPRs are skipped, because they are
+     * visited separately. The traversal is iterative and visits each node once, so deeply nested expressions (as found
+     * in generated code) neither cost more than linear time nor risk a stack overflow.
+     *
+     * @param pRoot the meaningful child of an EXPR
+     */
+    private void checkLiteralRuns(@Nonnull final DetailAST pRoot)
+    {
+        currentRun.clear();
+        DetailAST node = pRoot;
+        while (node != null) {
+            final DetailAST firstChild = node.getType() != TokenTypes.EXPR ? getFirstOperand(node) : null;
+            if (firstChild != null) {
+                node = firstChild;
+                continue;
+            }
+            if (node.getType() == TokenTypes.STRING_LITERAL) {
+                currentRun.add(node);
+            }
+            else if (node.getType() != TokenTypes.EXPR) {
+                endLiteralRun();
+            }
+
+            // The node is done. Continue with its next sibling, or with the next sibling of the nearest ancestor.
+            DetailAST next = null;
+            while (next == null && node != pRoot) {
+                final DetailAST parent = node.getParent();
+                if (parent.getType() == TokenTypes.PLUS) {
+                    next = getNextOperand(node);
+                }
+                else {
+                    next = node.getNextSibling();
+                    if (next != null) {
+                        endLiteralRun();   // the parent token stands between its children
+                    }
+                }
+                if (next == null) {
+                    node = parent;
                 }
             }
+            node = next;
         }
+        endLiteralRun();
     }
 
 
 
     /**
-     * Find the "meaningful" child of an EXPR AST. This is usually the only child present, but it may be surrounded by
-     * parentheses.
+     * Get the first child of the given AST. For concatenations, parentheses are skipped.
      *
-     * @param pAst an EXPR AST
-     * @return the meaningful child of the EXPR, or <code>null</code> if such could not be determined
+     * @param pAst an AST
+     * @return the first child to traverse, or <code>null</code> if there is none
      */
     @CheckForNull
-    private DetailAST getExprAst(@Nonnull final DetailAST pAst)
+    private DetailAST getFirstOperand(@Nonnull final DetailAST pAst)
     {
-        DetailAST result = null;
-        for (DetailAST a = pAst.getFirstChild(); a != null; a = a.getNextSibling()) {
-            if (a.getType() != TokenTypes.LPAREN && a.getType() != TokenTypes.RPAREN) {
-                result = a;
-                break;
-            }
+        DetailAST result = pAst.getFirstChild();
+        if (result != null && pAst.getType() == TokenTypes.PLUS && isParen(result)) {
+            result = getNextOperand(result);
         }
         return result;
     }
 
 
 
-    private String clipText(@Nonnull final String pText)
+    @CheckForNull
+    private DetailAST getNextOperand(@Nonnull final DetailAST pAst)
     {
-        final String snipMark = "...";
-        if (pText.length() > MAX_OUPUT_STRING_LEN) {
-            return pText.substring(0, MAX_OUPUT_STRING_LEN - snipMark.length()) + snipMark;
+        DetailAST result = pAst.getNextSibling();
+        while (result != null && isParen(result)) {
+            result = result.getNextSibling();
         }
-        return pText;
+        return result;
     }
 
 
 
-    private boolean containsStringLiteral(@Nonnull final DetailAST pAst)
+    private boolean isParen(@Nonnull final DetailAST pAst)
     {
-        if (pAst.getType() == TokenTypes.STRING_LITERAL) {
-            return true;
-        }
-        if (pAst.getType() == TokenTypes.EXPR) {
-            return false;
-        }
-        for (DetailAST a = pAst.getFirstChild(); a != null; a = a.getNextSibling()) {
-            if (containsStringLiteral(a)) {
-                return true;
-            }
-        }
-        return false;
+        return pAst.getType() == TokenTypes.LPAREN || pAst.getType() == TokenTypes.RPAREN;
     }
 
 
 
-    private void flatten(@Nonnull final DetailAST pAst, @Nonnull final List<DetailAST> pFlattenedList)
+    private void endLiteralRun()
     {
-        if (pAst.getType() == TokenTypes.PLUS) {
-            boolean first = true;
-            for (DetailAST a = pAst.getFirstChild(); a != null; a = a.getNextSibling()) {
-                if (a.getType() != TokenTypes.LPAREN && a.getType() != TokenTypes.RPAREN) {
-                    flatten(a, pFlattenedList);
-                    if (first) {
-                        pFlattenedList.add(pAst);
-                        first = false;
-                    }
-                }
-            }
-        }
-        else if (pAst.getType() != TokenTypes.EXPR) {
-            if (pAst.getChildCount() > 0) {
-                for (DetailAST a = pAst.getFirstChild(); a != null; a = a.getNextSibling()) {
-                    flatten(a, pFlattenedList);
-                    if (a != pAst.getLastChild()) {
-                        pFlattenedList.add(pAst);    // we don't care this gets added too often
-                    }
-                }
-            }
-            else {
-                pFlattenedList.add(pAst);
+        final DetailAST ast = currentRun.getAst();
+        if (ast != null) {
+            final String text = currentRun.getString();
+            currentRun.clear();
+            for (final PatternSet.NamedPattern match : patternSet.findMatches(text)) {
+                report(ast, text, match);
             }
         }
     }
 
 
 
-    @Nonnull
-    private String removeQuotes(@Nonnull final String pString)
+    private void report(@Nonnull final DetailAST pAst, @Nonnull final String pText,
+        @Nonnull final PatternSet.NamedPattern pMatch)
     {
-        return pString.substring(1, pString.length() - 1);
+        final String text = clipText(pText);
+        if (pMatch.getMessage() != null) {
+            log(pAst, "regexp.string.custom", MessageFormat.format(pMatch.getMessage(), text, pMatch.getPattern(),
+                pMatch.getName()));
+        }
+        else if (pMatch.getName() != null) {
+            log(pAst, "regexp.string.named", text, pMatch.getPattern(), pMatch.getName());
+        }
+        else {
+            log(pAst, "regexp.string", text, pMatch.getPattern());
+        }
     }
 
 
 
-    @Nonnull
-    private List<FoundString> findAllStrings(@Nonnull final DetailAST pAst)
+    /**
+     * Find the "meaningful" child of an EXPR AST. This is usually the only child present, but it may be surrounded by
+     * parentheses.
+     *
+     * @param pAst an EXPR AST
+     * @return the meaningful child of the EXPR, or <code>null</code> if such could not be determined
+     */
+    @CheckForNull
+    private DetailAST getExprAst(@Nonnull final DetailAST pAst)
     {
-        final List<DetailAST> flattened = new ArrayList<>();
-        flatten(pAst, flattened);
-
-        final List<FoundString> result = new ArrayList<>();
-        FoundString current = null;
-        for (final DetailAST a : flattened) {
-            if (a.getType() == TokenTypes.STRING_LITERAL) {
-                if (current != null) {
-                    current.addString(removeQuotes(a.getText()));
-                }
-                else {
-                    current = new FoundString(removeQuotes(a.getText()), a);
-                }
-            }
-            else if (a.getType() != TokenTypes.PLUS) {
-                if (current != null) {
-                    result.add(current);
-                    current = null;
-                }
+        DetailAST result = null;
+        for (DetailAST a = pAst.getFirstChild(); a != null; a = a.getNextSibling()) {
+            if (a.getType() != TokenTypes.LPAREN && a.getType() != TokenTypes.RPAREN) {
+                result = a;
+                break;
             }
         }
-        if (current != null) {
-            result.add(current);
-        }
         return result;
     }
 
 
 
+    private String clipText(@Nonnull final String pText)
+    {
+        final String snipMark = "...";
+        if (pText.length() > MAX_OUPUT_STRING_LEN) {
+            return pText.substring(0, MAX_OUPUT_STRING_LEN - snipMark.length()) + snipMark;
+        }
+        return pText;
+    }
+
+
+
     /**
      * Setter.
      *
@@ -248,6 +290,34 @@ public class RegexpOnStringCheck
     {
         if (pRegexp != null && pRegexp.length() > 0) {
             regexp = Pattern.compile(pRegexp);
+            updatePatternSet();
+        }
+    }
+
+
+
+    /**
+     * Setter.
+     *
+     * @param pPatterns named patterns, one per line in the form <code>name = regexp</code>, each optionally followed
+     *     by a line <code>name.message = text</code>
+     */
+    public void setPatterns(final String pPatterns)
+    {
+        namedPatterns = pPatterns != null ? PatternSet.parse(pPatterns)
+            : Collections.<PatternSet.NamedPattern>emptyList();
+        updatePatternSet();
+    }
+
+
+
+    private void updatePatternSet()
+    {
+        final List<PatternSet.NamedPattern> all = new ArrayList<>();
+        if (regexp != Util.NEVER_MATCH) {
+            all.add(new PatternSet.NamedPattern(null, regexp, null));
         }
+        all.addAll(namedPatterns);
+        patternSet = new PatternSet(all);
     }
 }
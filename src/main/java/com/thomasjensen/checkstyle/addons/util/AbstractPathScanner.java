@@ -0,0 +1,389 @@
+package com.thomasjensen.checkstyle.addons.util;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import javax.annotation.Nonnull;
+
+import net.jcip.annotations.NotThreadSafe;
+
+
+/**
+ * Common base of the scanners which apply the rules of a file name based check to a directory tree or to a list of
+ * files, without going through Checkstyle. Only the file paths are inspected, so no file is ever opened.
+ * <p>Subclasses implement {@link #check(File, boolean)}, and report violations via {@link #reportViolation}. Like a
+ * Checkstyle file set check, a scanner can be limited to certain file extensions.</p>
+ */
+@NotThreadSafe
+public abstract class AbstractPathScanner
+{
+    private static final int EXIT_USAGE = 1;
+
+    private static final int EXIT_ERROR = 2;
+
+    private static final int EXIT_VIOLATIONS = 3;
+
+    /** the name of the check as it appears in Checkstyle reports */
+    private final String checkName;
+
+    /** the name of the resource bundle containing the check's messages */
+    private final String bundleName;
+
+    /** the file extensions to check, each starting with a dot; empty to check all files */
+    private String[] fileExtensions = new String[0];
+
+    private ViolationListener listener = null;
+
+    /** the file currently being checked */
+    private File currentFile = null;
+
+    /** the number of violations found by the current scan */
+    private int count = 0;
+
+
+
+    /**
+     * Receives the violations found by a scanner.
+     */
+    public interface ViolationListener
+    {
+        /**
+         * Called once for each violation found.
+         *
+         * @param pFile the file which violates a rule
+         * @param pMessageKey the key of the message, same as used by the check
+         * @param pArgs the message arguments
+         */
+        void violation(@Nonnull File pFile, @Nonnull String pMessageKey, @Nonnull Object[] pArgs);
+    }
+
+
+
+    /**
+     * Creates a scanner for {@link #runFromCommandLine}.
+     */
+    protected interface Factory
+    {
+        /**
+         * Create the scanner.
+         *
+         * @return the new scanner
+         * @throws IOException a configuration file could not be read
+         * @throws IllegalArgumentException the configuration is invalid
+         */
+        @Nonnull
+        AbstractPathScanner create()
+            throws IOException;
+    }
+
+
+
+    /**
+     * Constructor.
+     *
+     * @param pCheckName the name of the check as it appears in Checkstyle reports
+     * @param pBundleName the name of the resource bundle containing the check's messages
+     */
+    protected AbstractPathScanner(@Nonnull final String pCheckName, @Nonnull final String pBundleName)
+    {
+        checkName = pCheckName;
+        bundleName = pBundleName;
+    }
+
+
+
+    /**
+     * Setter. Works like the <code>fileExtensions</code> property of Checkstyle's file set checks.
+     *
+     * @param pExtensions the file extensions to check, with or without leading dot; none to check all files
+     */
+    public void setFileExtensions(final String... pExtensions)
+    {
+        final String[] extensions = pExtensions != null ? pExtensions : new String[0];
+        fileExtensions = new String[extensions.length];
+        for (int i = 0; i < extensions.length; i++) {
+            final String ext = extensions[i].trim();
+            fileExtensions[i] = ext.startsWith(".") ? ext : '.' + ext;
+        }
+    }
+
+
+
+    /**
+     * Called at the beginning of each scan. The default implementation does nothing.
+     */
+    protected void beginScan()
+    {
+        // nothing by default
+    }
+
+
+
+    /**
+     * Check one file, reporting any violations via {@link #reportViolation}.
+     *
+     * @param pFile the file to check, which need not exist
+     * @param pCanonical <code>true</code> if the file path is known to be canonical already
+     */
+    protected abstract void check(@Nonnull File pFile, boolean pCanonical);
+
+
+
+    /**
+     * Determine if the given directory can be skipped as a whole when walking a directory tree. The default
+     * implementation skips nothing.
+     *
+     * @param pDirPath the canonical path of the directory
+     * @return <code>true</code> if no file in the directory tree needs to be checked
+     */
+    protected boolean isExcludedDirectory(@Nonnull final String pDirPath)
+    {
+        return false;
+    }
+
+
+
+    /**
+     * Report a violation of the file currently being checked.
+     *
+     * @param pMessageKey the key of the message, same as used by the check
+     * @param pArgs the message arguments
+     */
+    protected final void reportViolation(@Nonnull final String pMessageKey, @Nonnull final Object... pArgs)
+    {
+        count++;
+        listener.violation(currentFile, pMessageKey, pArgs);
+    }
+
+
+
+    /**
+     * Check the given files. The files need not exist.
+     *
+     * @param pFiles the files to check
+     * @param pListener receives the violations found
+     * @return the number of violations found
+     */
+    public int scan(@Nonnull final Iterable<File> pFiles, @Nonnull final ViolationListener pListener)
+    {
+        begin(pListener);
+        for (final File file : pFiles) {
+            process(file, false);
+        }
+        return count;
+    }
+
+
+
+    /**
+     * Check the files in the given list, one per line, such as the output of <code>git ls-files</code>. Each file is
+     * checked as soon as its line has been read, so the list is never held in memory. The files need not exist.
+     *
+     * @param pFileList the list of files; leading and trailing whitespace and empty lines are ignored
+     * @param pListener receives the violations found
+     * @return the number of violations found
+     * @throws IOException the list could not be read
+     */
+    public int scan(@Nonnull final BufferedReader pFileList, @Nonnull final ViolationListener pListener)
+        throws IOException
+    {
+        begin(pListener);
+        for (String line = pFileList.readLine(); line != null; line = pFileList.readLine()) {
+            final String path = line.trim();
+            if (!path.isEmpty()) {
+                process(new File(path), false);
+            }
+        }
+        return count;
+    }
+
+
+
+    /**
+     * Check all regular files in the given directory tree. Symbolic links are not followed. Directories which are
+     * excluded as a whole are skipped.
+     *
+     * @param pDir the root of the directory tree
+     * @param pListener receives the violations found
+     * @return the number of violations found
+     * @throws IOException the directory tree could not be read
+     */
+    public int walk(@Nonnull final File pDir, @Nonnull final ViolationListener pListener)
+        throws IOException
+    {
+        begin(pListener);
+        // All paths visited below a canonical root are canonical, because links are not followed.
+        Files.walkFileTree(Util.canonize(pDir).toPath(), new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path pSubDir, final BasicFileAttributes pAttrs)
+            {
+                return isExcludedDirectory(pSubDir.toString()) ? FileVisitResult.SKIP_SUBTREE
+                    : FileVisitResult.CONTINUE;
+            }
+
+
+
+            @Override
+            public FileVisitResult visitFile(final Path pFile, final BasicFileAttributes pAttrs)
+            {
+                if (pAttrs.isRegularFile()) {
+                    process(pFile.toFile(), true);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return count;
+    }
+
+
+
+    private void begin(@Nonnull final ViolationListener pListener)
+    {
+        listener = pListener;
+        count = 0;
+        beginScan();
+    }
+
+
+
+    private void process(@Nonnull final File pFile, final boolean pCanonical)
+    {
+        if (matchesFileExtension(pFile.getName())) {
+            currentFile = pFile;
+            check(pFile, pCanonical);
+        }
+    }
+
+
+
+    private boolean matchesFileExtension(@Nonnull final String pFileName)
+    {
+        if (fileExtensions.length == 0) {
+            return true;
+        }
+        for (final String ext : fileExtensions) {
+            if (pFileName.endsWith(ext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+    /**
+     * Create the English message text for a violation.
+     *
+     * @param pMessageKey the key of the message
+     * @param pArgs the message arguments
+     * @return the message text, as it would be reported by the check
+     */
+    @Nonnull
+    public String formatMessage(@Nonnull final String pMessageKey, @Nonnull final Object[] pArgs)
+    {
+        final ResourceBundle bundle = ResourceBundle.getBundle(bundleName, Locale.ROOT);
+        return new MessageFormat(bundle.getString(pMessageKey), Locale.ROOT).format(pArgs);
+    }
+
+
+
+    /**
+     * Create a line of output for a violation in the format of Checkstyle's default audit listener.
+     *
+     * @param pFile the file which violates a rule
+     * @param pMessageKey the key of the message
+     * @param pArgs the message arguments
+     * @return the formatted violation
+     */
+    @Nonnull
+    public String formatViolation(@Nonnull final File pFile, @Nonnull final String pMessageKey,
+        @Nonnull final Object[] pArgs)
+    {
+        return "[ERROR] " + pFile.getAbsolutePath() + ":1: " + formatMessage(pMessageKey, pArgs) + " [" + checkName
+            + "]";
+    }
+
+
+
+    /**
+     * Print a usage message and exit.
+     *
+     * @param pUsage the usage message, without the leading <code>Usage:</code>
+     */
+    protected static void exitWithUsage(@Nonnull final String pUsage)
+    {
+        System.err.println("Usage: " + pUsage);
+        System.exit(EXIT_USAGE);
+    }
+
+
+
+    /**
+     * Run a scanner from the command line. Violations are printed to standard output in the format of Checkstyle's
+     * default audit listener, and nothing else is. Errors and the number of violations go to standard error. Exits with
+     * status 2 if an error occurs, and with status 3 if violations were found.
+     *
+     * @param pFactory creates the scanner
+     * @param pTarget the directory to walk, or <code>-</code> to read the list of files from standard input
+     */
+    protected static void runFromCommandLine(@Nonnull final Factory pFactory, @Nonnull final String pTarget)
+    {
+        String checkName = null;
+        int numViolations = 0;
+        try {
+            final AbstractPathScanner scanner = pFactory.create();
+            checkName = scanner.checkName;
+            final ViolationListener printer = new ViolationListener()
+            {
+                @Override
+                public void violation(@Nonnull final File pFile, @Nonnull final String pMessageKey,
+                    @Nonnull final Object[] pArgs)
+                {
+                    System.out.println(scanner.formatViolation(pFile, pMessageKey, pArgs));
+                }
+            };
+            if ("-".equals(pTarget)) {
+                numViolations = scanner.scan(
+                    new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), printer);
+            }
+            else {
+                numViolations = scanner.walk(new File(pTarget), printer);
+            }
+        }
+        catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(EXIT_ERROR);
+        }
+
+        if (numViolations > 0) {
+            System.err.println(numViolations + " " + checkName + " violation(s) found");
+            System.exit(EXIT_VIOLATIONS);
+        }
+    }
+}
@@ -16,9 +16,10 @@ package com.thomasjensen.checkstyle.addons.util;
  */
 
 import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 import javax.annotation.CheckForNull;
@@ -34,7 +35,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 /**
  * The public API of the Checkstyle tool changes frequently, and many releases of Checkstyle are incompatible with their
  * predecessors. This class uses reflection in order to allow the Checkstyle Addons code to work with all dependency
- * configurations. It simply provides a stable interface with workarounds for all supported Checkstyle versions.
+ * configurations. It simply provides a stable interface with workarounds for all supported Checkstyle versions. The
+ * reflective lookups are performed only once, so the workarounds are cheap on the hot paths.
  */
 public class CheckstyleApiFixer
 {
@@ -80,7 +82,7 @@ public class CheckstyleApiFixer
      *     found
      */
     @CheckForNull
-    @SuppressWarnings({"JavaReflectionMemberAccess", "deprecation"})
+    @SuppressWarnings({"deprecation", "checkstyle:IllegalCatch"})   // getFileContents(); invokeExact() throws Throwable
     public File getCurrentFileName()
     {
         if (currentFileNameMockFile != null) {
@@ -89,25 +91,22 @@ public class CheckstyleApiFixer
 
         // the remainder of this method is a workaround for Checkstyle issue #1205
         // https://github.com/checkstyle/checkstyle/issues/1205
-        final FileContents fileContents = check.getFileContents();
-        Method getFilename = null;
-        try {
-            getFilename = fileContents.getClass().getMethod("getFileName");
-        }
-        catch (NoSuchMethodException e) {
-            try {
-                getFilename = fileContents.getClass().getMethod("getFilename");
-            }
-            catch (NoSuchMethodException e1) {
-                throw new UnsupportedOperationException("FileContents.getFilename()", e1);
-            }
+        final MethodHandle getFilename = ResolvedApi.GET_FILENAME;
+        if (getFilename == null) {
+            throw new UnsupportedOperationException("FileContents.getFilename()");
         }
 
         String filename = null;
         try {
-            filename = (String) getFilename.invoke(fileContents);
+            filename = (String) getFilename.invokeExact(check.getFileContents());
+        }
+        catch (RuntimeException e) {
+            throw e;
         }
-        catch (IllegalAccessException | InvocationTargetException e) {
+        catch (Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
             throw new UnsupportedOperationException("FileContents.getFilename()", e);
         }
 
@@ -125,33 +124,26 @@ public class CheckstyleApiFixer
      * @throws UnsupportedOperationException no known variant of <code>getTokenName()</code> could be found
      */
     @Nonnull
+    @SuppressWarnings("checkstyle:IllegalCatch")   // MethodHandle.invokeExact() is declared to throw Throwable
     public String getTokenName(final int pTokenId)
     {
-        final List<String> searchClasses = Arrays.asList("com.puppycrawl.tools.checkstyle.utils.TokenUtil",
-            "com.puppycrawl.tools.checkstyle.utils.TokenUtils", TokenTypes.class.getName(),
-            "com.puppycrawl.tools.checkstyle.Utils");
-        Method getTokenName = null;
-
-        for (final String className : searchClasses) {
-            try {
-                final Class<?> utilsClass = Class.forName(className);
-                getTokenName = utilsClass.getMethod("getTokenName", int.class);
-                break;
-            }
-            catch (ClassNotFoundException | NoSuchMethodException e) {
-                // ignore
-            }
-        }
+        final MethodHandle getTokenName = ResolvedApi.GET_TOKEN_NAME;
         if (getTokenName == null) {
             throw new UnsupportedOperationException("getTokenName() - method not found");
         }
 
         String result = null;
         try {
-            result = (String) getTokenName.invoke(null, pTokenId);
+            result = (String) getTokenName.invokeExact(pTokenId);
+        }
+        catch (RuntimeException e) {
+            throw e;
         }
-        catch (IllegalAccessException | InvocationTargetException e) {
-            throw new UnsupportedOperationException(getTokenName.getDeclaringClass().getName() + ".getTokenName()", e);
+        catch (Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new UnsupportedOperationException("getTokenName()", e);
         }
         return result;
     }
@@ -160,7 +152,7 @@ public class CheckstyleApiFixer
 
     /**
      * Determine if the given token is the root token of Checkstyle's AST. This means it's either an <code>EOF</code>
-     * token or a <code>COMPILATION_UNIT</code> token. This must be performed reflectively, because in Checkstyle 9.0,
+     * token or a <code>COMPILATION_UNIT</code> token. This must be determined reflectively, because in Checkstyle 9.0,
      * the <code>EOF</code> token was replaced with <code>COMPILATION_UNIT</code>.
      *
      * @param pToken the token to check
@@ -168,27 +160,93 @@ public class CheckstyleApiFixer
      * @throws IllegalStateException TokenTypes class has neither an <code>EOF</code> nor a
      *     <code>COMPILATION_UNIT</code> field
      */
-    @SuppressWarnings("JavaReflectionMemberAccess")
     public boolean isRootToken(final int pToken)
     {
-        try {
-            Field field = TokenTypes.class.getField("COMPILATION_UNIT");
-            return ((Integer) field.get(null)).intValue() == pToken;
+        final Integer rootToken = ResolvedApi.ROOT_TOKEN;
+        if (rootToken == null) {
+            throw new IllegalStateException("TokenTypes class has no EOF or COMPILATION_UNIT field");
         }
-        catch (NoSuchFieldException e) {
-            try {
-                Field field = TokenTypes.class.getField("EOF");
-                return ((Integer) field.get(null)).intValue() == pToken;
-            }
-            catch (NoSuchFieldException ex) {
-                throw new IllegalStateException("TokenTypes class has no EOF or COMPILATION_UNIT field", ex);
+        return rootToken.intValue() == pToken;
+    }
+
+
+
+    /**
+     * The parts of the Checkstyle API which differ between Checkstyle versions. They are resolved only once, when this
+     * class is first used. Fields are <code>null</code> if no known variant could be found.
+     */
+    private static final class ResolvedApi
+    {
+        /** <code>FileContents.getFileName()</code> or <code>FileContents.getFilename()</code> */
+        private static final MethodHandle GET_FILENAME = findGetFilename();
+
+        /** static method <code>String getTokenName(int)</code>, which moved around between utility classes */
+        private static final MethodHandle GET_TOKEN_NAME = findGetTokenName();
+
+        /** the value of <code>TokenTypes.COMPILATION_UNIT</code> or <code>TokenTypes.EOF</code> */
+        private static final Integer ROOT_TOKEN = findRootToken();
+
+
+
+        private ResolvedApi()
+        {
+            super();
+        }
+
+
+
+        @CheckForNull
+        private static MethodHandle findGetFilename()
+        {
+            final MethodType type = MethodType.methodType(String.class);
+            for (final String methodName : Arrays.asList("getFileName", "getFilename")) {
+                try {
+                    return MethodHandles.publicLookup().findVirtual(FileContents.class, methodName, type);
+                }
+                catch (NoSuchMethodException | IllegalAccessException e) {
+                    // try next variant
+                }
             }
-            catch (IllegalAccessException ex) {
-                throw new IllegalStateException(e);
+            return null;
+        }
+
+
+
+        @CheckForNull
+        private static MethodHandle findGetTokenName()
+        {
+            final List<String> searchClasses = Arrays.asList("com.puppycrawl.tools.checkstyle.utils.TokenUtil",
+                "com.puppycrawl.tools.checkstyle.utils.TokenUtils", TokenTypes.class.getName(),
+                "com.puppycrawl.tools.checkstyle.Utils");
+            final MethodType type = MethodType.methodType(String.class, int.class);
+            for (final String className : searchClasses) {
+                try {
+                    final Class<?> utilsClass = Class.forName(className);
+                    return MethodHandles.publicLookup().findStatic(utilsClass, "getTokenName", type);
+                }
+                catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+                    // try next variant
+                }
             }
+            return null;
         }
-        catch (IllegalAccessException e) {
-            throw new IllegalStateException(e);
+
+
+
+        @CheckForNull
+        @SuppressWarnings("JavaReflectionMemberAccess")
+        private static Integer findRootToken()
+        {
+            for (final String fieldName : Arrays.asList("COMPILATION_UNIT", "EOF")) {
+                try {
+                    final Field field = TokenTypes.class.getField(fieldName);
+                    return Integer.valueOf(field.getInt(null));
+                }
+                catch (NoSuchFieldException | IllegalAccessException e) {
+                    // try next variant
+                }
+            }
+            return null;
         }
     }
 }
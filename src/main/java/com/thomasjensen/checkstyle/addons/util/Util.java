@@ -280,6 +280,44 @@ public final class Util
 
 
 
+    /**
+     * Convert the given String into a form in which two Strings are equal if and only if they are equal according to
+     * {@link String#CASE_INSENSITIVE_ORDER}.
+     *
+     * @param pString a String
+     * @return the folded String, which is the same instance if no characters needed to be changed
+     */
+    @Nonnull
+    public static String foldCase(@Nonnull final String pString)
+    {
+        final int len = pString.length();
+        for (int i = 0; i < len; i++) {
+            final char c = pString.charAt(i);
+            if (foldChar(c) != c) {
+                final StringBuilder sb = new StringBuilder(len);
+                sb.append(pString, 0, i);
+                for (int j = i; j < len; j++) {
+                    sb.append(foldChar(pString.charAt(j)));
+                }
+                return sb.toString();
+            }
+        }
+        return pString;
+    }
+
+
+
+    private static char foldChar(final char pChar)
+    {
+        if (pChar < 0x80) {
+            return pChar >= 'A' && pChar <= 'Z' ? (char) (pChar + ('a' - 'A')) : pChar;
+        }
+        // same as String.CASE_INSENSITIVE_ORDER
+        return Character.toLowerCase(Character.toUpperCase(pChar));
+    }
+
+
+
     /**
      * Creates a new immutable {@link HashSet} which contains a union of the two given sets.
      *
@@ -65,6 +65,7 @@ public class IllegalMethodCallRule
 
         pNewRule.createParam("excludedQualifiers")
             .setType(RuleParamType.STRING)
-            .setDescription("Comma-separated list of method call qualifiers indicating false positives");
+            .setDescription("Comma-separated list of method call qualifiers indicating false positives. A qualifier "
+                + "ending in ``.*`` excludes all qualifiers with that prefix.");
     }
 }
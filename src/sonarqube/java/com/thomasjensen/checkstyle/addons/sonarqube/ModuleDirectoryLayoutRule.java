@@ -75,5 +75,16 @@ public class ModuleDirectoryLayoutRule
                 + "``true``, the check will quietly disable itself and do nothing. If ``false``, an exception will be "
                 + "thrown.")
             .setDefaultValue("false");
+
+        pNewRule.createParam("aggregateIllegalContent")
+            .setType(RuleParamType.BOOLEAN)
+            .setDescription("In addition to the individual violations, report a summary for each folder which "
+                + "contains several files that are not accepted content of their MDL path")
+            .setDefaultValue("false");
+
+        pNewRule.createParam("maxSampleFiles")
+            .setType(RuleParamType.INTEGER)
+            .setDescription("Maximum number of file names listed when ``aggregateIllegalContent`` is ``true``")
+            .setDefaultValue("5");
     }
 }
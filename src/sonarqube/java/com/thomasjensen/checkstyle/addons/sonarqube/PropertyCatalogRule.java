@@ -136,5 +136,16 @@ public class PropertyCatalogRule
             .setDescription("Files whose absolute path matches this regular expression are not checked. "
                 + "Partial matches allowed.")
             .setDefaultValue("[\\\\/]\\.idea[\\\\/](?:checkstyleidea\\.tmp[\\\\/])?csi-\\w+[\\\\/]");
+
+        pNewRule.createParam("cacheDir")
+            .setType(RuleParamType.STRING)
+            .setDescription("Directory where snapshots of the parsed property files are stored, so that unchanged "
+                + "property files need not be parsed again in subsequent runs. Optional.");
+
+        pNewRule.createParam("sharedPropertyFiles")
+            .setType(RuleParamType.BOOLEAN)
+            .setDescription("Whether several property catalogs may use the same property file, so that orphans and "
+                + "duplicates are determined across catalogs by the ``SharedPropertyCatalog`` rule")
+            .setDefaultValue("false");
     }
 }
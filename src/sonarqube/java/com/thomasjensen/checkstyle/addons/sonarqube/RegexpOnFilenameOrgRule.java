@@ -79,5 +79,11 @@ public class RegexpOnFilenameOrgRule
             .setType(RuleParamType.BOOLEAN)
             .setDescription("Check the simple file name only (``true``), or the entire path (``false``).")
             .setDefaultValue("true");
+
+        pNewRule.createParam("rules")
+            .setType(RuleParamType.TEXT)
+            .setDescription("Any number of rules, one attribute per line in the form ``name.attribute = value``. "
+                + "Attributes are ``selection``, ``regexp``, ``mode``, ``simple``, and ``message``. Values are "
+                + "trimmed unless enclosed in double quotes. If given, the other parameters are ignored.");
     }
 }
@@ -63,5 +63,10 @@ public class RegexpOnStringRule
             .setType(RuleParamType.STRING)
             .setDescription("The regular expression used to find Strings to flag.")
             .setDefaultValue("^(?!x)x");
+
+        pNewRule.createParam("patterns")
+            .setType(RuleParamType.TEXT)
+            .setDescription("Additional named regular expressions, one per line in the form ``name = regexp``, each "
+                + "optionally followed by a line ``name.message = text`` with the message to report.");
     }
 }
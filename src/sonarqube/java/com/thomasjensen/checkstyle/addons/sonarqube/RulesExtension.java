@@ -51,6 +51,7 @@ public class RulesExtension
         new PropertyCatalogRule(repository, checkstyleAddonsVersion).define(pContext);
         new RegexpOnFilenameOrgRule(repository, checkstyleAddonsVersion).define(pContext);
         new RegexpOnStringRule(repository, checkstyleAddonsVersion).define(pContext);
+        new SharedPropertyCatalogRule(repository, checkstyleAddonsVersion).define(pContext);
 
         repository.done();
     }
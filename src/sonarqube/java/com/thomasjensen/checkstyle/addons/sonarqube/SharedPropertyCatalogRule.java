@@ -0,0 +1,63 @@
+package com.thomasjensen.checkstyle.addons.sonarqube;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+import javax.annotation.Nonnull;
+
+import org.sonar.api.rule.RuleStatus;
+import org.sonar.api.rule.Severity;
+
+
+/**
+ * SonarQube rule for our <i>SharedPropertyCatalog</i> check.
+ */
+public class SharedPropertyCatalogRule
+    extends AbstractRuleBase
+{
+    public SharedPropertyCatalogRule(@Nonnull final NewRepository pSqRepo,
+        @Nonnull final String pCheckstyleAddonsVersion)
+    {
+        super(pSqRepo, pCheckstyleAddonsVersion, true);
+    }
+
+
+
+    @Nonnull
+    @Override
+    protected String getRuleId()
+    {
+        return "com.thomasjensen.checkstyle.addons.checks.misc.SharedPropertyCatalogCheck";
+    }
+
+
+
+    @Override
+    protected void defineRule(@Nonnull final NewRule pNewRule, @Nonnull final String pCheckstyleAddonsVersion)
+    {
+        pNewRule.setName("Shared property file out of sync")
+            .setInternalKey("Checker/SharedPropertyCatalog")
+            .setHtmlDescription("<p>Companion of the PropertyCatalog check which reports orphans and duplicates "
+                + "across all property catalogs that share a property file.</p>\n"
+                + "<p><a href=\"http://checkstyle-addons.thomasjensen.com/v" + pCheckstyleAddonsVersion
+                + "/checks/misc.html#PropertyCatalog\" target=\"_blank\">Full Documentation</a></p>")
+            .setSeverity(Severity.MAJOR)
+            .setStatus(RuleStatus.READY)
+            .setTags("checkstyle-addons", "misc");
+
+        pNewRule.setDebtRemediationFunction(pNewRule.debtRemediationFunctions().constantPerIssue("10min"));
+    }
+}
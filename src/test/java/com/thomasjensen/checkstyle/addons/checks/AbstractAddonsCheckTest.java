@@ -0,0 +1,125 @@
+package com.thomasjensen.checkstyle.addons.checks;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * Some unit tests for {@link AbstractAddonsCheck}, as far as they are not covered by the tests of the actual checks.
+ */
+public class AbstractAddonsCheckTest
+{
+    private static final String MOCK_FILE = "src/test/resources/com/thomasjensen/checkstyle/addons/checks/misc/"
+        + "InputPropertyCatalog1.java";
+
+
+
+    private static class TestCheck
+        extends AbstractAddonsCheck
+    {
+        private final Set<Integer> relevantTokens;
+
+
+
+        TestCheck(final String pMockFile)
+        {
+            this(pMockFile, Collections.<Integer>emptySet());
+        }
+
+
+
+        TestCheck(final String pMockFile, final Set<Integer> pRelevantTokens)
+        {
+            super(pMockFile);
+            relevantTokens = pRelevantTokens;
+        }
+
+
+
+        @Override
+        public Set<Integer> getRelevantTokens()
+        {
+            return relevantTokens;
+        }
+    }
+
+
+
+    @Test
+    public void testCurrentFile()
+    {
+        final TestCheck underTest = new TestCheck(MOCK_FILE);
+        final File currentFile = underTest.getCurrentFile();
+        Assert.assertEquals(Util.canonize(new File(MOCK_FILE)), currentFile);
+        Assert.assertSame(currentFile, underTest.getCurrentFile());
+    }
+
+
+
+    @Test
+    public void testRelativePath()
+    {
+        final TestCheck underTest = new TestCheck(MOCK_FILE);
+        final String expected = MOCK_FILE.substring("src/".length()).replace('/', File.separatorChar);
+        Assert.assertEquals(expected, underTest.getCurrentFileRelativePath(Util.canonize(new File("src"))));
+        Assert.assertEquals("InputPropertyCatalog1.java", underTest.getCurrentFileRelativePath(
+            Util.canonize(new File(MOCK_FILE).getParentFile())));
+    }
+
+
+
+    @Test
+    public void testRelativePathNotBelow()
+    {
+        final TestCheck underTest = new TestCheck(MOCK_FILE);
+        Assert.assertNull(underTest.getCurrentFileRelativePath(Util.canonize(new File("src/main"))));
+        Assert.assertNull(underTest.getCurrentFileRelativePath(Util.canonize(new File("src/tes"))));
+        Assert.assertNull(underTest.getCurrentFileRelativePath(Util.canonize(new File(MOCK_FILE))));
+    }
+
+
+
+    @Test
+    public void testRequiredTokens()
+    {
+        final TestCheck underTest = new TestCheck(MOCK_FILE,
+            new HashSet<>(Arrays.asList(TokenTypes.METHOD_CALL, TokenTypes.CLASS_DEF)));
+        underTest.init();
+
+        final int[] expected = {TokenTypes.PACKAGE_DEF, TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF,
+            TokenTypes.ENUM_DEF, TokenTypes.ANNOTATION_DEF, TokenTypes.METHOD_CALL};
+        Arrays.sort(expected);
+        final int[] actual = underTest.getRequiredTokens();
+        Assert.assertArrayEquals(expected, actual);
+
+        actual[0] = -1;
+        Assert.assertArrayEquals(expected, underTest.getRequiredTokens());
+        Assert.assertArrayEquals(expected, underTest.getAcceptableTokens());
+        Assert.assertArrayEquals(expected, underTest.getDefaultTokens());
+    }
+}
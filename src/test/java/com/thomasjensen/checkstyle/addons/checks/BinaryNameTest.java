@@ -216,4 +216,26 @@ public class BinaryNameTest
         BinaryName bn = new BinaryName("com", "Foo");
         Assert.assertEquals(bn, bn);
     }
+
+
+
+    @Test
+    public void testCreateInner()
+    {
+        final BinaryName outer = new BinaryName("com.foo", "Foo");
+        final BinaryName inner = outer.createInner("Bar").createInner("Baz");
+        final BinaryName expected = new BinaryName("com.foo", "Foo", "Bar", "Baz");
+
+        Assert.assertEquals(expected, inner);
+        Assert.assertEquals(inner, expected);
+        Assert.assertEquals(expected.hashCode(), inner.hashCode());
+        Assert.assertEquals("com.foo.Foo$Bar$Baz", inner.toString());
+        Assert.assertEquals("Foo", inner.getOuterSimpleName());
+        Assert.assertEquals("Baz", inner.getInnerSimpleName());
+        Assert.assertEquals("Baz", inner.getSimpleName());
+        Assert.assertEquals("com.foo.Foo", inner.getOuterFqcn());
+        Assert.assertNotEquals(new BinaryName("com.foo", "Foo", "Bar$Baz"), inner);
+        Assert.assertNotEquals(new BinaryName("com.foo", "Foo", "Bar"), inner);
+        Assert.assertNotEquals(new BinaryName("com.bar", "Foo", "Bar", "Baz"), inner);
+    }
 }
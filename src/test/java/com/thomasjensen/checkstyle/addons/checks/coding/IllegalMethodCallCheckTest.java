@@ -142,6 +142,29 @@ public class IllegalMethodCallCheckTest
 
 
 
+    @Test
+    public void testExclusionsWildcard()
+        throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(IllegalMethodCallCheck.class);
+        Helpers.addConfigProperty(checkConfig, "illegalMethodNames", "forName");
+        Helpers.addConfigProperty(checkConfig, "excludedQualifiers", "Inner1.*");
+        final String[] expected = {
+            "6:49: Illegal method call: forName()",
+            "9:15: Illegal method call: forName()",
+            "10:31: Illegal method call: forName()",
+            "16:31: Illegal method call: forName()",
+            "18:30: Illegal method call: forName()",
+            "19:25: Illegal method call: forName()",
+            "20:9: Illegal method call: forName()",
+            "23:21: Illegal method call: forName()",
+            "40:16: Illegal method call: forName()",
+        };
+        verify(checkConfig, sInputFilePath, expected);
+    }
+
+
+
     @Test
     public void testTypeArgument1()
         throws Exception
@@ -0,0 +1,72 @@
+package com.thomasjensen.checkstyle.addons.checks.coding;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link QualifierTrie}.
+ */
+public class QualifierTrieTest
+{
+    @Test
+    public void testExact()
+    {
+        final QualifierTrie underTest = new QualifierTrie("Inner1", "Inner1.Inner2", " Charset ");
+        Assert.assertTrue(underTest.matches("Inner1"));
+        Assert.assertTrue(underTest.matches("Inner1.Inner2"));
+        Assert.assertTrue(underTest.matches("Charset"));
+        Assert.assertFalse(underTest.matches("Inner2"));
+        Assert.assertFalse(underTest.matches("Inner1.Inner3"));
+        Assert.assertFalse(underTest.matches("Inner1.Inner2.Inner3"));
+        Assert.assertFalse(underTest.matches(null));
+    }
+
+
+
+    @Test
+    public void testPrefix()
+    {
+        final QualifierTrie underTest = new QualifierTrie("org.slf4j.*", "java.lang.Class");
+        Assert.assertTrue(underTest.matches("org.slf4j.LoggerFactory"));
+        Assert.assertTrue(underTest.matches("org.slf4j.spi.MDCAdapter"));
+        Assert.assertFalse(underTest.matches("org.slf4j"));
+        Assert.assertFalse(underTest.matches("org.slf4jx.Logger"));
+        Assert.assertFalse(underTest.matches("org"));
+        Assert.assertTrue(underTest.matches("java.lang.Class"));
+        Assert.assertFalse(underTest.matches("java.lang"));
+    }
+
+
+
+    @Test
+    public void testEmpty()
+    {
+        Assert.assertFalse(new QualifierTrie().matches("Foo"));
+        Assert.assertFalse(new QualifierTrie("", " ").matches(""));
+        Assert.assertTrue(new QualifierTrie("*").matches("Foo.Bar"));
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWildcardInMiddle()
+    {
+        new QualifierTrie("org.*.Logger");
+    }
+}
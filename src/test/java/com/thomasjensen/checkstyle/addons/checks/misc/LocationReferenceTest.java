@@ -372,6 +372,64 @@ public class LocationReferenceTest
 
 
 
+    @Test
+    public void testQualifiedCallOtherQualifier()
+        throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(LocationReferenceCheck.class);
+        // the method name passes the name prefilter, but the qualifier does not match
+        Helpers.addConfigProperty(checkConfig, "methodCalls", "Other.checkedCall15");
+        Helpers.addConfigProperty(checkConfig, "location", "classobject");
+
+        verify(checkConfig, getPath("misc/InputLocationReference.java"), new String[0]);
+    }
+
+
+
+    @Test
+    public void testQualifiedCallWithoutQualifier()
+        throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(LocationReferenceCheck.class);
+        Helpers.addConfigProperty(checkConfig, "methodCalls", "Inner6.checkedCall16");
+        Helpers.addConfigProperty(checkConfig, "location", "classobject");
+
+        // the call without qualifier in line 207 is not covered
+        final String[] expected = {//
+            "208:70: Value must reference the simple class object of the current type, which is 'Inner6.class'", //
+        };
+        verify(checkConfig, getPath("misc/InputLocationReference.java"), expected);
+    }
+
+
+
+    @Test
+    public void testUnqualifiedMethodCalls()
+        throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(LocationReferenceCheck.class);
+        // entries without a dot cover only calls without qualifier
+        Helpers.addConfigProperty(checkConfig, "methodCalls", "checkedCall16, checkedCall2");
+        Helpers.addConfigProperty(checkConfig, "location", "classobject");
+
+        final String[] expected = {//
+            "28:22: Value must reference the simple class object of the current type, which is "
+                + "'InputLocationReference.class'", //
+            "157:48: Value must reference the simple class object of the current type, which is "
+                + "'InputLocationReference.class'", //
+            "165:22: Value must reference the simple class object of the current type, which is "
+                + "'InputLocationReference.class'", //
+            "171:22: Value must reference the simple class object of the current type, which is "
+                + "'InputLocationReference.class'", //
+            "178:22: Value must reference the simple class object of the current type, which is "
+                + "'InputLocationReference.class'", //
+            "207:63: Value must reference the simple class object of the current type, which is 'Inner6.class'", //
+        };
+        verify(checkConfig, getPath("misc/InputLocationReference.java"), expected);
+    }
+
+
+
     @Test
     public void testFieldOnly()
         throws Exception
@@ -0,0 +1,130 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link MdlConfigCache}.
+ */
+public class MdlConfigCacheTest
+{
+    private static final String CONFIG_TEMPLATE = "{ \"settings\": { \"moduleRegex\": \"%s\" }, "
+        + "\"structure\": { \"src\": {} } }";
+
+
+
+    private static File createConfigFile(final String pModuleRegex)
+        throws IOException
+    {
+        final File result = File.createTempFile("addons-test-", ".json");
+        result.deleteOnExit();
+        writeFile(result, String.format(CONFIG_TEMPLATE, pModuleRegex));
+        return result;
+    }
+
+
+
+    private static void writeFile(final File pFile, final String pContents)
+        throws IOException
+    {
+        Files.write(pFile.toPath(), pContents.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+
+    @Test
+    public void testParsedOnlyOnce()
+        throws IOException
+    {
+        final File configFile = createConfigFile("module");
+        final MdlConfigCache underTest = MdlConfigCache.getInstance();
+
+        final MdlConfig config1 = underTest.get(configFile.getPath());
+        Assert.assertNotNull(config1.getJson());
+        Assert.assertEquals("module", config1.getModuleRegex().pattern());
+
+        final MdlConfig config2 = underTest.get(configFile.getPath());
+        Assert.assertSame(config1, config2);
+    }
+
+
+
+    @Test
+    public void testReloadWhenChanged()
+        throws IOException
+    {
+        final File configFile = createConfigFile("module");
+        final MdlConfigCache underTest = MdlConfigCache.getInstance();
+
+        final MdlConfig config1 = underTest.get(configFile.getPath());
+        Assert.assertEquals("module", config1.getModuleRegex().pattern());
+
+        writeFile(configFile, String.format(CONFIG_TEMPLATE, "modules/[^/]+"));
+        final MdlConfig config2 = underTest.get(configFile.getPath());
+        Assert.assertEquals("modules/[^/]+", config2.getModuleRegex().pattern());
+    }
+
+
+
+    @Test
+    public void testInvalidConfigNotCached()
+        throws IOException
+    {
+        final File configFile = createConfigFile("module");
+        final MdlConfigCache underTest = MdlConfigCache.getInstance();
+        Assert.assertNotNull(underTest.get(configFile.getPath()).getJson());
+
+        writeFile(configFile, "{ \"settings\": {}, \"structure\": { \"src/main/java/\": {} } }");
+        for (int i = 0; i < 2; i++) {
+            try {
+                underTest.get(configFile.getPath());
+                Assert.fail("expected IllegalArgumentException");
+            }
+            catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+
+
+    @Test(expected = FileNotFoundException.class)
+    public void testFileNotFound()
+        throws FileNotFoundException
+    {
+        MdlConfigCache.getInstance().get("notfound.json");
+    }
+
+
+
+    @Test
+    public void testDefaultConfig()
+    {
+        final MdlConfigCache underTest = MdlConfigCache.getInstance();
+        final MdlConfig config = underTest.getDefaultConfig();
+        Assert.assertNotNull(config.getJson());
+        Assert.assertSame(config, underTest.getDefaultConfig());
+    }
+}
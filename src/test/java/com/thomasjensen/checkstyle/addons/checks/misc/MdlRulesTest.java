@@ -0,0 +1,134 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * Unit tests of {@link MdlRules}.
+ */
+public final class MdlRulesTest
+{
+    private MdlRules compile(final String pResource)
+        throws IOException, ConfigValidationException
+    {
+        InputStream is = null;
+        MdlJsonConfig cfg = null;
+        try {
+            is = getClass().getResourceAsStream(pResource);
+            cfg = ModuleDirectoryLayoutCheck.readConfigFile(is);
+        }
+        finally {
+            Util.closeQuietly(is);
+        }
+        cfg.validate();
+        return new MdlRules(cfg);
+    }
+
+
+
+    @Test
+    public void testCompileExampleConfig()
+        throws IOException, ConfigValidationException
+    {
+        final MdlRules underTest = compile("ModuleDirectoryLayout/directories.json");
+        Assert.assertNull(underTest.getPathRules("src/unknown"));
+
+        final MdlRules.PathRules mainJava = underTest.getPathRules("src/main/java");
+        Assert.assertNotNull(mainJava);
+        Assert.assertNull(mainJava.getModules());
+        Assert.assertTrue(mainJava.isAllowListActive());
+        Assert.assertEquals(1, mainJava.getAllowFolderRules().size());
+        Assert.assertEquals(2, mainJava.getAllowFileRules().size());
+        Assert.assertEquals(2, mainJava.getDenyFolderRules().size());
+        Assert.assertTrue(mainJava.getDenyFileRules().isEmpty());
+
+        final MdlRules.Rule extensions = mainJava.getAllowFileRules().get(0);
+        Assert.assertEquals(MdlContentSpecType.FileExtensions, extensions.getType());
+        Assert.assertTrue(extensions.isCaseSensitive());
+        Assert.assertTrue(extensions.matchesExtension(new HashSet<>(Arrays.asList("java", "txt"))));
+        Assert.assertFalse(extensions.matchesExtension(Collections.singleton("JAVA")));
+
+        final MdlRules.PathRules mainResources = underTest.getPathRules("src/main/resources");
+        Assert.assertNotNull(mainResources);
+        Assert.assertFalse("no whitelist", mainResources.isAllowListActive());
+        Assert.assertEquals(Collections.singletonList("META-INF"), mainResources.getTopLevelFolders());
+
+        // FromPath "src/main/java" is resolved into the deny lists
+        final List<MdlRules.Rule> denyFolderRules = mainResources.getDenyFolderRules();
+        Assert.assertEquals(2, denyFolderRules.size());
+        Assert.assertEquals("doc-files", denyFolderRules.get(0).getSpec());
+        Assert.assertEquals("WEB-INF", denyFolderRules.get(1).getSpec());
+        final List<MdlRules.Rule> denyFileRules = mainResources.getDenyFileRules();
+        Assert.assertEquals(2, denyFileRules.size());
+        Assert.assertFalse(denyFileRules.get(0).isCaseSensitive());
+        Assert.assertTrue(denyFileRules.get(0).matchesExtension(Collections.singleton("JAVA")));
+        Assert.assertEquals(MdlContentSpecType.SimpleName, denyFileRules.get(1).getType());
+
+        final MdlRules.PathRules webapp = underTest.getPathRules("src/main/webapp");
+        Assert.assertNotNull(webapp);
+        Assert.assertNotNull(webapp.getModules());
+        Assert.assertTrue(webapp.getModules().matcher("group/svc-foo").find());
+    }
+
+
+
+    @Test
+    public void testCompilePattern()
+        throws IOException, ConfigValidationException
+    {
+        final MdlRules underTest = compile("ModuleDirectoryLayout/directories-scenario5.json");
+        final MdlRules.PathRules mainJava = underTest.getPathRules("src/main/java");
+        Assert.assertNotNull(mainJava);
+        Assert.assertFalse(mainJava.isAllowListActive());
+
+        final MdlRules.Rule regex = mainJava.getDenyFileRules().get(0);
+        Assert.assertEquals(MdlContentSpecType.SpecificPathRegex, regex.getType());
+        Assert.assertTrue(regex.getPattern().matcher("a/b/illegal.java").find());
+        Assert.assertFalse(regex.getPattern().matcher("a/b/legal.java").find());
+    }
+
+
+
+    @Test
+    public void testFindMdlPath()
+        throws IOException, ConfigValidationException
+    {
+        final MdlRules underTest = compile("ModuleDirectoryLayout/directories.json");
+        final String sep = File.separator;
+        Assert.assertEquals("src/main/java",
+            underTest.findMdlPath("src" + sep + "main" + sep + "java" + sep + "A.java"));
+        Assert.assertEquals("src/test/resources",
+            underTest.findMdlPath("src" + sep + "test" + sep + "resources" + sep + "a" + sep + "b.txt"));
+        Assert.assertNull(underTest.findMdlPath("src" + sep + "main" + sep + "java"));
+        Assert.assertNull(underTest.findMdlPath("src" + sep + "main" + sep + "javax" + sep + "A.java"));
+        Assert.assertNull(underTest.findMdlPath("src" + sep + "main" + sep + "A.java"));
+        Assert.assertNull(underTest.findMdlPath("other" + sep + "src" + sep + "main" + sep + "java" + sep + "A.java"));
+        Assert.assertNull(underTest.findMdlPath(""));
+    }
+}
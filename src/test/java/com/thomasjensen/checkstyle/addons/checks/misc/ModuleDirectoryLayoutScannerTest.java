@@ -0,0 +1,191 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.thomasjensen.checkstyle.addons.util.AbstractPathScanner;
+import com.thomasjensen.checkstyle.addons.util.Util;
+
+
+/**
+ * Unit tests of {@link ModuleDirectoryLayoutScanner}.
+ */
+public final class ModuleDirectoryLayoutScannerTest
+{
+    private static final class CollectingListener
+        implements AbstractPathScanner.ViolationListener
+    {
+        private final File baseDir;
+
+        private final Set<String> violations = new HashSet<>();
+
+
+
+        CollectingListener(final File pBaseDir)
+        {
+            baseDir = pBaseDir;
+        }
+
+
+
+        @Override
+        public void violation(final File pFile, final String pMessageKey, final Object[] pArgs)
+        {
+            final String relativePath = pFile.getPath().substring(baseDir.getPath().length() + 1);
+            violations.add(relativePath.replace(File.separatorChar, '/') + " " + pMessageKey);
+        }
+    }
+
+
+
+    private File getDefaultScenarioDir()
+        throws URISyntaxException
+    {
+        final URL url = getClass().getResource("ModuleDirectoryLayout/default");
+        Assert.assertNotNull("ModuleDirectoryLayout/default not found", url);
+        return Util.canonize(new File(url.toURI()));
+    }
+
+
+
+    @Test
+    public void testWalk()
+        throws URISyntaxException, IOException
+    {
+        final File baseDir = getDefaultScenarioDir();
+        final ModuleDirectoryLayoutScanner underTest = new ModuleDirectoryLayoutScanner(baseDir, null);
+        final CollectingListener listener = new CollectingListener(baseDir);
+
+        final int count = underTest.walk(baseDir, listener);
+
+        final Set<String> expected = new HashSet<>(Arrays.asList(
+            "src/main/java/a/b/illegal.txt moduledirectorylayout.illegalcontent",
+            "src/main/java/a/META-INF/A.java moduledirectorylayout.illegalcontent",
+            "src/main/whitespace/file.ws moduledirectorylayout.invalid.mdlpath",
+            "src/main/resources/META-INF/META-INF/file.txt moduledirectorylayout.illegalcontent",
+            "src/main/resources/a/META-INF/file.txt moduledirectorylayout.illegalcontent"));
+        Assert.assertEquals(expected, listener.violations);
+        Assert.assertEquals(expected.size(), count);
+    }
+
+
+
+    @Test
+    public void testWalkSkipsExcludedDirectories()
+        throws IOException
+    {
+        final File baseDir = Util.canonize(Files.createTempDirectory("addons-test-").toFile());
+        final File excludedDir = new File(baseDir, ".idea/csi-1");
+        final File excludedFile = new File(excludedDir, "src/main/java/illegal.txt");
+        Assert.assertTrue(excludedFile.getParentFile().mkdirs());
+        Files.write(excludedFile.toPath(), new byte[0]);
+
+        try {
+            final ModuleDirectoryLayoutScanner underTest = new ModuleDirectoryLayoutScanner(baseDir, null);
+            final CollectingListener listener = new CollectingListener(baseDir);
+            Assert.assertEquals(0, underTest.walk(baseDir, listener));
+            Assert.assertTrue(listener.violations.isEmpty());
+
+            final MdlPathValidator validator = new MdlPathValidator(baseDir,
+                MdlConfigCache.getInstance().getDefaultConfig());
+            Assert.assertTrue(validator.isExcludedDirectory(excludedDir.getPath()));
+            Assert.assertTrue(validator.isExcludedDirectory(excludedFile.getParent()));
+            Assert.assertFalse(validator.isExcludedDirectory(new File(baseDir, ".idea").getPath()));
+            Assert.assertFalse(validator.isExcludedDirectory(baseDir.getPath()));
+        }
+        finally {
+            for (File f = excludedFile; !f.equals(baseDir); f = f.getParentFile()) {
+                Assert.assertTrue(f.delete());
+            }
+            Assert.assertTrue(baseDir.delete());
+        }
+    }
+
+
+
+    @Test
+    public void testScanNonExistingFiles()
+        throws URISyntaxException, IOException
+    {
+        final File baseDir = getDefaultScenarioDir();
+        final ModuleDirectoryLayoutScanner underTest = new ModuleDirectoryLayoutScanner(baseDir, null);
+        final CollectingListener listener = new CollectingListener(baseDir);
+
+        final int count = underTest.scan(Arrays.asList(
+            new File(baseDir, "src/main/java/a/B.java"),
+            new File(baseDir, "src/main/java/a/B.txt"),
+            new File(baseDir, "src/test/java/a/src/C.java"),
+            new File(baseDir, "README.md")), listener);
+
+        final Set<String> expected = new HashSet<>(Arrays.asList(
+            "src/main/java/a/B.txt moduledirectorylayout.illegalcontent",
+            "src/test/java/a/src/C.java moduledirectorylayout.nestedsrcfolder"));
+        Assert.assertEquals(expected, listener.violations);
+        Assert.assertEquals(2, count);
+    }
+
+
+
+    @Test(expected = FileNotFoundException.class)
+    public void testConfigFileNotFound()
+        throws URISyntaxException, IOException
+    {
+        new ModuleDirectoryLayoutScanner(getDefaultScenarioDir(), new File("non-existent.json"));
+    }
+
+
+
+    @Test
+    public void testFileExtensions()
+        throws URISyntaxException, IOException
+    {
+        final File baseDir = getDefaultScenarioDir();
+        final ModuleDirectoryLayoutScanner underTest = new ModuleDirectoryLayoutScanner(baseDir, null);
+        underTest.setFileExtensions("java", ".ws");
+        final CollectingListener listener = new CollectingListener(baseDir);
+
+        final int count = underTest.walk(baseDir, listener);
+
+        final Set<String> expected = new HashSet<>(Arrays.asList(
+            "src/main/java/a/META-INF/A.java moduledirectorylayout.illegalcontent",
+            "src/main/whitespace/file.ws moduledirectorylayout.invalid.mdlpath"));
+        Assert.assertEquals(expected, listener.violations);
+        Assert.assertEquals(expected.size(), count);
+    }
+
+
+
+    @Test
+    public void testFormatMessage()
+        throws URISyntaxException, IOException
+    {
+        final ModuleDirectoryLayoutScanner underTest = new ModuleDirectoryLayoutScanner(getDefaultScenarioDir(), null);
+        Assert.assertEquals("'src' may not be used as package name or subfolder: a/src/C.java",
+            underTest.formatMessage("moduledirectorylayout.nestedsrcfolder", new Object[]{"a/src/C.java"}));
+    }
+}
@@ -18,12 +18,16 @@ package com.thomasjensen.checkstyle.addons.checks.misc;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
+import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -88,6 +92,32 @@ public class ModuleDirectoryLayoutTest
     }
 
 
+    @Test
+    @SuppressFBWarnings(value = "DMI_HARDCODED_ABSOLUTE_FILENAME", justification = "These are fictional absolute paths")
+    public void testDecomposePathSameDirectory()
+            throws IOException
+    {
+        ModuleDirectoryLayoutCheck check = new ModuleDirectoryLayoutCheck();
+        check.setBaseDir("D:/Projects/project1");
+        check.setConfigFile(getPath("misc/ModuleDirectoryLayout/directories-multi.json"));
+
+        final String dir = "D:/Projects/project1/group/module1/src/test/resources/foo/bar/";
+        DecomposedPath dcp1 = check.decomposePath(check.getMdlConfig(),
+                Util.canonize(new File(dir + "Filename.tar.gz")).getPath());
+        DecomposedPath dcp2 = check.decomposePath(check.getMdlConfig(),
+                Util.canonize(new File(dir + "other.txt")).getPath());
+
+        Assert.assertNotNull(dcp1);
+        Assert.assertNotNull(dcp2);
+        Assert.assertEquals(dcp1.getModulePath(), dcp2.getModulePath());
+        Assert.assertEquals(dcp1.getMdlPath(), dcp2.getMdlPath());
+        Assert.assertEquals(dcp1.getSpecificFolders(), dcp2.getSpecificFolders());
+        Assert.assertEquals("foo" + File.separator + "bar" + File.separator + "other.txt", dcp2.getSpecificPath());
+        Assert.assertEquals("other.txt", dcp2.getSimpleFilename());
+        Assert.assertEquals(Collections.singleton("txt"), dcp2.getFileExtensions());
+    }
+
+
     @Test
     @SuppressFBWarnings(value = "DMI_HARDCODED_ABSOLUTE_FILENAME", justification = "These are fictional absolute paths")
     public void testDecomposePathNoExtension()
@@ -650,4 +680,97 @@ public class ModuleDirectoryLayoutTest
         final String filepath = getPath("misc/ModuleDirectoryLayout/default/.idea/csi-007/ignore_this.txt");
         verify(mCheckConfig, filepath, new String[0]);
     }
+
+
+    @Test
+    public void testAggregateIllegalContent()
+            throws Exception
+    {
+        Helpers.addConfigProperty(mCheckConfig, "baseDir", getPath("misc/ModuleDirectoryLayout/scenario9"));
+        Helpers.addConfigProperty(mCheckConfig, "aggregateIllegalContent", "true");
+        Helpers.addConfigProperty(mCheckConfig, "maxSampleFiles", "2");
+
+        final String firstFile = getPath("misc/ModuleDirectoryLayout/scenario9/src/main/java/a/b/one.txt");
+        final String secondFile = getPath("misc/ModuleDirectoryLayout/scenario9/src/main/java/a/b/two.txt");
+        final String thirdFile = getPath("misc/ModuleDirectoryLayout/scenario9/src/main/java/a/b/three.txt");
+        final String[] expected = {//
+                firstFile + ":1: File is not accepted content of src/main/java: " + Util.standardizeSlashes(
+                        "a/b/one.txt"), //
+                secondFile + ":1: File is not accepted content of src/main/java: " + Util.standardizeSlashes(
+                        "a/b/two.txt"), //
+                thirdFile + ":1: File is not accepted content of src/main/java: " + Util.standardizeSlashes(
+                        "a/b/three.txt"), //
+                firstFile + ":1: Folder '" + Util.standardizeSlashes("a/b")
+                        + "' of src/main/java contains 3 files which are not accepted content: one.txt, two.txt, ..."
+        };
+        verifyAllFiles(new File[]{new File(firstFile), new File(secondFile), new File(thirdFile)}, expected);
+    }
+
+
+    @Test
+    public void testAggregateIllegalContentAllListed()
+            throws Exception
+    {
+        Helpers.addConfigProperty(mCheckConfig, "baseDir", getPath("misc/ModuleDirectoryLayout/scenario9"));
+        Helpers.addConfigProperty(mCheckConfig, "aggregateIllegalContent", "true");
+
+        final String firstFile = getPath("misc/ModuleDirectoryLayout/scenario9/src/main/java/a/b/two.txt");
+        final String secondFile = getPath("misc/ModuleDirectoryLayout/scenario9/src/main/java/a/b/three.txt");
+        final String[] expected = {//
+                firstFile + ":1: File is not accepted content of src/main/java: " + Util.standardizeSlashes(
+                        "a/b/two.txt"), //
+                secondFile + ":1: File is not accepted content of src/main/java: " + Util.standardizeSlashes(
+                        "a/b/three.txt"), //
+                firstFile + ":1: Folder '" + Util.standardizeSlashes("a/b")
+                        + "' of src/main/java contains 2 files which are not accepted content: two.txt, three.txt"
+        };
+        verifyAllFiles(new File[]{new File(firstFile), new File(secondFile)}, expected);
+    }
+
+
+    @Test
+    public void testAggregateIllegalContentSingleFile()
+            throws Exception
+    {
+        Helpers.addConfigProperty(mCheckConfig, "baseDir", getPath("misc/ModuleDirectoryLayout/scenario9"));
+        Helpers.addConfigProperty(mCheckConfig, "aggregateIllegalContent", "true");
+
+        // no summary for a single file
+        final String[] expected = {"1: File is not accepted content of src/main/java: " + Util.standardizeSlashes(
+                "a/c/single.txt")};
+
+        final String filepath = getPath("misc/ModuleDirectoryLayout/scenario9/src/main/java/a/c/single.txt");
+        verify(mCheckConfig, filepath, expected);
+    }
+
+
+    /**
+     * Process the given files and compare the output line by line, for violations which are reported on different
+     * files.
+     *
+     * @param pFilesToCheck the files to process
+     * @param pExpected the expected output lines in the form <code>file:line: message</code>
+     * @throws Exception processing failed
+     */
+    private void verifyAllFiles(final File[] pFilesToCheck, final String[] pExpected)
+            throws Exception
+    {
+        final Checker checker = createChecker(mCheckConfig);
+        try {
+            final int errs = checker.process(Arrays.asList(pFilesToCheck));
+            mStream.flush();
+            final List<String> actual = new ArrayList<>();
+            for (final String line : new String(mBAOS.toByteArray(), StandardCharsets.UTF_8).split("\\r?\\n")) {
+                if (line.contains(": ")) {
+                    actual.add(line.replaceFirst(Pattern.quote("[ERROR] "), "").replaceFirst(
+                            Pattern.quote(" [ModuleDirectoryLayout]") + "$", ""));
+                }
+            }
+            Assert.assertEquals(Arrays.asList(pExpected), actual);
+            Assert.assertEquals(pExpected.length, errs);
+        }
+        finally {
+            checker.destroy();
+        }
+    }
 }
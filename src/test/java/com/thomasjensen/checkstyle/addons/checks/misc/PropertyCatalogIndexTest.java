@@ -0,0 +1,131 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link PropertyCatalogIndex}.
+ */
+public class PropertyCatalogIndexTest
+{
+    private static final String PROP_FILE = "/path/to/messages.properties";
+
+    private static final PropertyKeySet KEYS = new PropertyKeySet(new HashSet<>(Arrays.asList("key", "other")), false);
+
+
+
+    @Test
+    public void testDuplicatesIndependentOfOrder()
+    {
+        final PropertyCatalogIndex.Catalog foo = catalog("Foo", "/src/Foo.java", true, false,
+            new PropertyCatalogIndex.Entry("KEY", "key", 5), new PropertyCatalogIndex.Entry("OTHER", "other", 6));
+        final PropertyCatalogIndex.Catalog bar = catalog("Bar", "/src/Bar.java", true, false,
+            new PropertyCatalogIndex.Entry("KEY_TOO", "KEY", 7));
+
+        final PropertyCatalogIndex underTest1 = new PropertyCatalogIndex();
+        underTest1.register(PROP_FILE, new File(PROP_FILE), KEYS, foo);
+        underTest1.register(PROP_FILE, new File(PROP_FILE), KEYS, bar);
+        final PropertyCatalogIndex underTest2 = new PropertyCatalogIndex();
+        underTest2.register(PROP_FILE, new File(PROP_FILE), KEYS, bar);
+        underTest2.register(PROP_FILE, new File(PROP_FILE), KEYS, foo);
+
+        for (final PropertyCatalogIndex underTest : Arrays.asList(underTest1, underTest2)) {
+            final List<PropertyCatalogIndex.Finding> findings = underTest.analyze();
+            Assert.assertEquals(2, findings.size());
+            assertFinding(findings.get(0), "/src/Bar.java", 7, "propertycatalog.duplicate.property.shared",
+                "KEY_TOO", "KEY", "Foo");
+            assertFinding(findings.get(1), "/src/Foo.java", 5, "propertycatalog.duplicate.property.shared",
+                "KEY", "KEY_TOO", "Bar");
+        }
+    }
+
+
+
+    @Test
+    public void testOrphansAcrossCatalogs()
+    {
+        final PropertyCatalogIndex underTest = new PropertyCatalogIndex();
+        underTest.register(PROP_FILE, new File(PROP_FILE), KEYS, catalog("Foo", "/src/Foo.java", false, true,
+            new PropertyCatalogIndex.Entry("KEY", "key", 5)));
+        Assert.assertEquals(1, underTest.analyze().size());
+
+        underTest.register(PROP_FILE, new File(PROP_FILE), KEYS, catalog("Bar", "/src/Bar.java", false, true,
+            new PropertyCatalogIndex.Entry("OTHER", "other", 7)));
+        Assert.assertTrue(underTest.analyze().isEmpty());
+    }
+
+
+
+    @Test
+    public void testOrphansReportedOnFirstCatalog()
+    {
+        final PropertyCatalogIndex underTest = new PropertyCatalogIndex();
+        underTest.register(PROP_FILE, new File(PROP_FILE), KEYS, catalog("Foo", "/src/Foo.java", false, true));
+        underTest.register(PROP_FILE, new File(PROP_FILE), KEYS, catalog("Bar", "/src/Bar.java", false, false));
+        underTest.register(PROP_FILE, new File(PROP_FILE), KEYS, catalog("Baz", "/src/Baz.java", false, true));
+
+        // Bar comes first, but does not want orphans reported
+        final List<PropertyCatalogIndex.Finding> findings = underTest.analyze();
+        Assert.assertEquals(1, findings.size());
+        assertFinding(findings.get(0), "/src/Baz.java", 1, "propertycatalog.orphaned.properties",
+            new TreeSet<>(Arrays.asList("key", "other")), new File(PROP_FILE));
+    }
+
+
+
+    @Test
+    public void testCurrentIndex()
+    {
+        Assert.assertNull(PropertyCatalogIndex.getCurrent());
+        final PropertyCatalogIndex underTest = PropertyCatalogIndex.beginAudit();
+        try {
+            Assert.assertSame(underTest, PropertyCatalogIndex.getCurrent());
+        }
+        finally {
+            underTest.endAudit();
+        }
+        Assert.assertNull(PropertyCatalogIndex.getCurrent());
+    }
+
+
+
+    private static PropertyCatalogIndex.Catalog catalog(final String pBinaryName, final String pSourceFile,
+        final boolean pReportDuplicates, final boolean pReportOrphans, final PropertyCatalogIndex.Entry... pEntries)
+    {
+        return new PropertyCatalogIndex.Catalog(pBinaryName, pSourceFile, 1, pReportDuplicates, pReportOrphans,
+            Arrays.asList(pEntries));
+    }
+
+
+
+    private static void assertFinding(final PropertyCatalogIndex.Finding pFinding, final String pSourceFile,
+        final int pLineNo, final String pMessageKey, final Object... pArgs)
+    {
+        Assert.assertEquals(pSourceFile, pFinding.getSourceFile());
+        Assert.assertEquals(pLineNo, pFinding.getLineNo());
+        Assert.assertEquals(pMessageKey, pFinding.getMessageKey());
+        Assert.assertArrayEquals(pArgs, pFinding.getArgs());
+    }
+}
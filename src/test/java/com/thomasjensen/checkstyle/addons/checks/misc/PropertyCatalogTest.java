@@ -17,8 +17,13 @@ package com.thomasjensen.checkstyle.addons.checks.misc;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
 
+import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import org.junit.Assert;
 import org.junit.Test;
@@ -264,6 +269,54 @@ public class PropertyCatalogTest
     }
 
 
+    @Test
+    public void testPropertyFileNotFoundMultiple()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(PropertyCatalogCheck.class);
+        Helpers.addConfigProperty(checkConfig, "selection", "Catalog6\\$");
+        Helpers.addConfigProperty(checkConfig, "propertyFile", "notfound");
+
+        // negative lookup results are cached per catalog, so the problem must be reported for every catalog
+        final String notFound = new File("notfound").getCanonicalPath();
+        final String[] expected = {
+                "11:25: Could not load property file for catalog 'com.foo.InputPropertyCatalog6$Foo': " + notFound,
+                "21:25: Could not load property file for catalog 'com.foo.InputPropertyCatalog6$Orphaned1': "
+                        + notFound,
+                "33:25: Could not load property file for catalog 'com.foo.InputPropertyCatalog6$Orphaned2': "
+                        + notFound,
+        };
+        verify(checkConfig, getPath("misc/InputPropertyCatalog6.java"), expected);
+    }
+
+
+    @Test
+    public void testPropertyFileCreatedLater()
+            throws Exception
+    {
+        final File tempDir = Files.createTempDirectory("addons-test-").toFile();
+        tempDir.deleteOnExit();
+        final File propFile = new File(tempDir, "created.properties");
+        final DefaultConfiguration checkConfig = createCheckConfig(PropertyCatalogCheck.class);
+        Helpers.addConfigProperty(checkConfig, "selection", "Catalog6\\$Foo");
+        Helpers.addConfigProperty(checkConfig, "propertyFile", propFile.getPath());
+
+        // the same checker instance must notice that the property file has been created between two audits
+        final Checker checker = createChecker(checkConfig);
+        try {
+            final List<File> files = Collections.singletonList(new File(getPath("misc/InputPropertyCatalog6.java")));
+            Assert.assertEquals(1, checker.process(files));
+
+            Files.write(propFile.toPath(), "0 = zero\n1 = one\n2 = two\n".getBytes(StandardCharsets.ISO_8859_1));
+            propFile.deleteOnExit();
+            Assert.assertEquals(0, checker.process(files));
+        }
+        finally {
+            checker.destroy();
+        }
+    }
+
+
     @Test
     public void testOrphaned1()
             throws Exception
@@ -296,6 +349,25 @@ public class PropertyCatalogTest
     }
 
 
+    @Test
+    public void testSharedPropertyFileWithoutCompanion()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(PropertyCatalogCheck.class);
+        Helpers.addConfigProperty(checkConfig, "selection", "Catalog6\\$Orphaned");
+        Helpers.addConfigProperty(checkConfig, "propertyFile", getPath("misc/InputPropertyCatalog1.properties"));
+        Helpers.addConfigProperty(checkConfig, "sharedPropertyFiles", "true");
+
+        // without a SharedPropertyCatalog module, each catalog is checked on its own as usual
+        final String propFile = new File(getPath("misc/InputPropertyCatalog1.properties")).getCanonicalPath();
+        final String[] expected = {//
+                "21:25: Orphaned property '1' in file: " + propFile, //
+                "33:25: Orphaned properties [1, 2] in file: " + propFile, //
+        };
+        verify(checkConfig, getPath("misc/InputPropertyCatalog6.java"), expected);
+    }
+
+
     @Test
     public void testOrphansIgnored()
             throws Exception
@@ -642,4 +714,28 @@ public class PropertyCatalogTest
         };
         verify(createChecker(checkConfig), filesToCheck, "doesNotMatter", new String[0]);
     }
+
+
+    @Test
+    public void testCacheDir()
+            throws Exception
+    {
+        final File cacheDir = Files.createTempDirectory("addons-test-").toFile();
+        cacheDir.deleteOnExit();
+        final DefaultConfiguration checkConfig = createCheckConfig(PropertyCatalogCheck.class);
+        Helpers.addConfigProperty(checkConfig, "selection", "Catalog6\\$Orphaned1");
+        Helpers.addConfigProperty(checkConfig, "propertyFile", getPath("misc/InputPropertyCatalog1.properties"));
+        Helpers.addConfigProperty(checkConfig, "cacheDir", cacheDir.getPath());
+
+        final String[] expected = {//
+                "21:25: Orphaned property '1' in file: " + new File(getPath("misc/InputPropertyCatalog1.properties"))
+                        .getCanonicalPath(), //
+        };
+        verify(checkConfig, getPath("misc/InputPropertyCatalog6.java"), expected);
+
+        final File[] snapshots = cacheDir.listFiles();
+        Assert.assertNotNull(snapshots);
+        Assert.assertEquals(1, snapshots.length);
+        snapshots[0].deleteOnExit();
+    }
 }
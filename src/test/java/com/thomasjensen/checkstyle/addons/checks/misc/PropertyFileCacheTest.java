@@ -0,0 +1,127 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link PropertyFileCache}.
+ */
+public class PropertyFileCacheTest
+{
+    private static File createPropertyFile(final String pContents)
+        throws IOException
+    {
+        final File result = File.createTempFile("addons-test-", ".properties");
+        result.deleteOnExit();
+        writeFile(result, pContents);
+        return result;
+    }
+
+
+
+    private static void writeFile(final File pFile, final String pContents)
+        throws IOException
+    {
+        Files.write(pFile.toPath(), pContents.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+
+    @Test
+    public void testParsedOnlyOnce()
+        throws IOException
+    {
+        final File propFile = createPropertyFile("one = 1\ntwo = 2\n");
+        final PropertyFileCache underTest = PropertyFileCache.getInstance();
+
+        final Set<String> props1 = underTest.get(propFile, StandardCharsets.UTF_8, null);
+        Assert.assertNotNull(props1);
+        Assert.assertEquals(2, props1.size());
+        Assert.assertTrue(props1.contains("one"));
+
+        final Set<String> props2 = underTest.get(propFile, StandardCharsets.UTF_8, null);
+        Assert.assertSame(props1, props2);
+    }
+
+
+
+    @Test
+    public void testReloadWhenChanged()
+        throws IOException
+    {
+        final File propFile = createPropertyFile("one = 1\n");
+        final PropertyFileCache underTest = PropertyFileCache.getInstance();
+
+        final Set<String> props1 = underTest.get(propFile, StandardCharsets.UTF_8, null);
+        Assert.assertNotNull(props1);
+        Assert.assertEquals(1, props1.size());
+
+        writeFile(propFile, "one = 1\ntwo = 2\n");
+        final Set<String> props2 = underTest.get(propFile, StandardCharsets.UTF_8, null);
+        Assert.assertNotNull(props2);
+        Assert.assertEquals(2, props2.size());
+    }
+
+
+
+    @Test
+    public void testFileNotFound()
+    {
+        final Set<String> props = PropertyFileCache.getInstance().get(new File("notfound.properties"),
+            StandardCharsets.UTF_8, null);
+        Assert.assertNull(props);
+    }
+
+
+
+    @Test
+    public void testSnapshot()
+        throws IOException
+    {
+        final File propFile = createPropertyFile("one = 1\ntwo = 2\n");
+        final long lastModified = propFile.lastModified();
+        final File snapshotDir = Files.createTempDirectory("addons-test-").toFile();
+        snapshotDir.deleteOnExit();
+        final PropertyFileCache underTest = PropertyFileCache.getInstance();
+
+        final Set<String> props1 = underTest.get(propFile, StandardCharsets.UTF_8, snapshotDir);
+        Assert.assertNotNull(props1);
+        final File[] snapshots = snapshotDir.listFiles();
+        Assert.assertNotNull(snapshots);
+        Assert.assertEquals(1, snapshots.length);
+        snapshots[0].deleteOnExit();
+
+        // Same size and modification time, so the snapshot wins over the actual file contents. This proves that the
+        // snapshot was used.
+        writeFile(propFile, "one = 1\nthr = 3\n");
+        Assert.assertTrue(propFile.setLastModified(lastModified));
+        underTest.clear();
+
+        final Set<String> props2 = underTest.get(propFile, StandardCharsets.UTF_8, snapshotDir);
+        Assert.assertNotNull(props2);
+        Assert.assertNotSame(props1, props2);
+        Assert.assertEquals(props1, props2);
+    }
+}
@@ -0,0 +1,84 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.text.MessageFormat;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link PropertyFileTemplate}.
+ */
+public class PropertyFileTemplateTest
+{
+    private static final String[] VALUES = {"v0", "v1", "v2", "v3", "v4", "v5", "v6", "v7", null, "v9", "v10", "{11}",
+        "v12"};
+
+
+
+    private static void assertSameAsMessageFormat(final String pTemplate)
+    {
+        final String expected = MessageFormat.format(pTemplate, (Object[]) VALUES);
+        Assert.assertEquals(expected, new PropertyFileTemplate(pTemplate).format(VALUES));
+    }
+
+
+
+    @Test
+    public void testSimple()
+    {
+        assertSameAsMessageFormat("");
+        assertSameAsMessageFormat("foo.properties");
+        assertSameAsMessageFormat("{0}");
+        assertSameAsMessageFormat("src/{12}/{1}.properties");
+        assertSameAsMessageFormat("{0}{1}{2}{3}{4}{5}{6}{7}{8}{9}{10}{11}{12}");
+        assertSameAsMessageFormat("|{8}|{11}|{8}|");
+    }
+
+
+
+    @Test
+    public void testUsed()
+    {
+        final PropertyFileTemplate underTest = new PropertyFileTemplate("{11}../{1}.properties");
+        for (int i = 0; i < PropertyFileTemplate.NUM_PLACEHOLDERS; i++) {
+            Assert.assertEquals(i == 1 || i == 11, underTest.isUsed(i));
+        }
+    }
+
+
+
+    @Test
+    public void testFallback()
+    {
+        assertSameAsMessageFormat("it''s {0}");
+        assertSameAsMessageFormat("'{0}'/{1}");
+        assertSameAsMessageFormat("foo}{1}");
+        assertSameAsMessageFormat("{13}/{1}");
+        assertSameAsMessageFormat("{01}");
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid()
+    {
+        new PropertyFileTemplate("{1");
+        Assert.fail("Expected exception was not thrown");
+    }
+}
@@ -0,0 +1,145 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link PropertyKeyParser}.
+ */
+public class PropertyKeyParserTest
+{
+    private static Set<String> parse(final String pContents, final Charset pEncoding)
+        throws IOException
+    {
+        final File file = File.createTempFile("addons-test-", ".properties");
+        try {
+            Files.write(file.toPath(), pContents.getBytes(pEncoding));
+            return PropertyKeyParser.parseKeys(file, pEncoding);
+        }
+        finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+
+
+    private static void assertSameAsProperties(final String pContents)
+        throws IOException
+    {
+        final Properties props = new Properties();
+        props.load(new StringReader(pContents));
+        final Set<String> expected = new HashSet<>(props.stringPropertyNames());
+
+        Assert.assertEquals(expected, parse(pContents, StandardCharsets.UTF_8));
+    }
+
+
+
+    @Test
+    public void testSimple()
+        throws IOException
+    {
+        assertSameAsProperties("");
+        assertSameAsProperties("one = 1\ntwo=2\nthree:3\nfour 4\nfive\n\n   \n");
+        assertSameAsProperties("no.newline.at.end=x");
+        assertSameAsProperties("empty.value=\nempty.value2");
+        assertSameAsProperties("=empty key\n");
+    }
+
+
+
+    @Test
+    public void testLineEndings()
+        throws IOException
+    {
+        assertSameAsProperties("one=1\r\ntwo=2\rthree=3\n");
+        assertSameAsProperties("one=a \\\r\n   two=b\r\nthree=3");
+        assertSameAsProperties("one=a \\\n\ntwo=b\n");
+        assertSameAsProperties("one=a\\\\\ntwo=b\\\\\\\nthree=c\n");
+        assertSameAsProperties("on\\\n   e=1\n");
+        assertSameAsProperties("one=1\\");
+    }
+
+
+
+    @Test
+    public void testComments()
+        throws IOException
+    {
+        assertSameAsProperties("# comment\n! another comment\n   # indented comment\nkey=# not a comment\n");
+        assertSameAsProperties("# comment with continuation \\\nkey=value\n");
+        assertSameAsProperties("#");
+    }
+
+
+
+    @Test
+    public void testEscapes()
+        throws IOException
+    {
+        assertSameAsProperties("a\\=b=1\na\\:b:2\na\\ b 3\n");
+        assertSameAsProperties("\\u0041\\u00e4b=1\n\\t\\n\\r\\f\\x=2\n");
+        assertSameAsProperties("\\#notacomment=1\n");
+        assertSameAsProperties("key\\\\=1\n");
+    }
+
+
+
+    @Test
+    public void testLargeFile()
+        throws IOException
+    {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("key.").append(i).append(".\u00e4\u00f6\u00fc = value ").append(i).append(" \u20ac\n");
+        }
+        assertSameAsProperties(sb.toString());
+    }
+
+
+
+    @Test
+    public void testEncoding()
+        throws IOException
+    {
+        final Set<String> keys = parse("k\u00e4y=v\u00e4lue\n", StandardCharsets.ISO_8859_1);
+        Assert.assertEquals(1, keys.size());
+        Assert.assertTrue(keys.contains("k\u00e4y"));
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedUnicodeEscape()
+        throws IOException
+    {
+        parse("\\u00g1=1\n", StandardCharsets.UTF_8);
+        Assert.fail("Expected exception was not thrown");
+    }
+}
@@ -0,0 +1,57 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link PropertyKeySet}.
+ */
+public class PropertyKeySetTest
+{
+    @Test
+    public void testCaseSensitive()
+    {
+        final Set<String> keys = new HashSet<>(Arrays.asList("one", "Two"));
+        final PropertyKeySet underTest = new PropertyKeySet(keys, true);
+        Assert.assertTrue(underTest.contains("one"));
+        Assert.assertFalse(underTest.contains("ONE"));
+        Assert.assertFalse(underTest.contains("two"));
+        Assert.assertSame(keys, underTest.getKeys());
+        Assert.assertTrue(underTest.isBasedOn(keys));
+    }
+
+
+
+    @Test
+    public void testCaseInsensitive()
+    {
+        final Set<String> keys = new HashSet<>(Arrays.asList("one", "Two", "TWO"));
+        final PropertyKeySet underTest = new PropertyKeySet(keys, false);
+        Assert.assertTrue(underTest.contains("one"));
+        Assert.assertTrue(underTest.contains("ONE"));
+        Assert.assertTrue(underTest.contains("two"));
+        Assert.assertFalse(underTest.contains("three"));
+        Assert.assertEquals(2, underTest.getKeys().size());
+        Assert.assertEquals(underTest.toLookupKey("tWo"), underTest.toLookupKey("TWO"));
+    }
+}
@@ -0,0 +1,195 @@
+package com.thomasjensen.checkstyle.addons.checks.misc;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.thomasjensen.checkstyle.addons.BaseCheckTestSupport;
+import com.thomasjensen.checkstyle.addons.Helpers;
+
+
+/**
+ * Unit test of {@link SharedPropertyCatalogCheck}.
+ */
+public class SharedPropertyCatalogTest
+        extends BaseCheckTestSupport
+{
+    public SharedPropertyCatalogTest()
+    {
+        setCheckShortname(SharedPropertyCatalogCheck.class);
+    }
+
+
+
+    @Override
+    protected DefaultConfiguration createCheckerConfig(final Configuration pConfig)
+    {
+        final DefaultConfiguration result = super.createCheckerConfig(pConfig);
+        result.addChild(createCheckConfig(SharedPropertyCatalogCheck.class));
+        return result;
+    }
+
+
+
+    private static DefaultConfiguration createPropertyCatalogConfig(final String pSelection)
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(PropertyCatalogCheck.class);
+        Helpers.addConfigProperty(checkConfig, "selection", pSelection);
+        Helpers.addConfigProperty(checkConfig, "propertyFile", getPath("misc/InputPropertyCatalog1.properties"));
+        Helpers.addConfigProperty(checkConfig, "sharedPropertyFiles", "true");
+        return checkConfig;
+    }
+
+
+
+    @Test
+    public void testNoOrphans()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createPropertyCatalogConfig("Catalog6\\$");
+        Helpers.addConfigProperty(checkConfig, "reportDuplicates", "false");
+
+        // Orphaned1 and Orphaned2 do not reference all properties, but Foo does
+        verify(checkConfig, getPath("misc/InputPropertyCatalog6.java"), new String[0]);
+    }
+
+
+
+    @Test
+    public void testNoOrphansMultipleFiles()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createPropertyCatalogConfig("Catalog18Shared");
+        Helpers.addConfigProperty(checkConfig, "reportDuplicates", "false");
+
+        // The first catalog lacks property '1', which is referenced only by the catalog in the second file.
+        final File[] filesToCheck = new File[]{//
+                new File(getPath("misc/InputPropertyCatalog18Shared1.java")), //
+                new File(getPath("misc/InputPropertyCatalog18Shared2.java")), //
+        };
+        verify(createChecker(checkConfig), filesToCheck, "doesNotMatter", new String[0]);
+    }
+
+
+
+    @Test
+    public void testOrphansMultipleFiles()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createPropertyCatalogConfig(
+                "Catalog18Shared1|Catalog6\\$Orphaned2");
+        Helpers.addConfigProperty(checkConfig, "reportDuplicates", "false");
+
+        // Property '1' is referenced by neither catalog. It is reported on the first catalog by binary name, even
+        // though that catalog is in the file which is analyzed last.
+        final String propFile = new File(getPath("misc/InputPropertyCatalog1.properties")).getCanonicalPath();
+        final File[] filesToCheck = new File[]{//
+                new File(getPath("misc/InputPropertyCatalog6.java")), //
+                new File(getPath("misc/InputPropertyCatalog18Shared1.java")), //
+        };
+        final String[] expected = {//
+                "4: Orphaned property '1' in file: " + propFile, //
+        };
+        verify(createChecker(checkConfig), filesToCheck, getPath("misc/InputPropertyCatalog18Shared1.java"),
+                expected);
+    }
+
+
+
+    @Test
+    public void testOrphansNotReported()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createPropertyCatalogConfig("Catalog6\\$Orphaned");
+        Helpers.addConfigProperty(checkConfig, "reportDuplicates", "false");
+        Helpers.addConfigProperty(checkConfig, "reportOrphans", "false");
+
+        verify(checkConfig, getPath("misc/InputPropertyCatalog6.java"), new String[0]);
+    }
+
+
+
+    @Test
+    public void testDuplicates()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createPropertyCatalogConfig("Catalog6\\$");
+
+        // every reference is reported, including those of the first catalog
+        final String[] expected = {//
+                "13: Catalog entry 'KEY1' refers to the same property as 'KEY1' in catalog "
+                        + "'com.foo.InputPropertyCatalog6$Orphaned1'", //
+                "17: Catalog entry 'KEY3' refers to the same property as 'KEY3' in catalog "
+                        + "'com.foo.InputPropertyCatalog6$Orphaned1'", //
+                "23: Catalog entry 'KEY1' refers to the same property as 'KEY1' in catalog "
+                        + "'com.foo.InputPropertyCatalog6$Foo'", //
+                "25: Catalog entry 'KEY3' refers to the same property as 'KEY3' in catalog "
+                        + "'com.foo.InputPropertyCatalog6$Foo'", //
+                "35: Catalog entry 'KEY1' refers to the same property as 'KEY1' in catalog "
+                        + "'com.foo.InputPropertyCatalog6$Foo'", //
+        };
+        verify(checkConfig, getPath("misc/InputPropertyCatalog6.java"), expected);
+    }
+
+
+
+    @Test
+    public void testDuplicatesMultipleFilesIndependentOfOrder()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createPropertyCatalogConfig("Catalog18Shared");
+        final File file1 = new File(getPath("misc/InputPropertyCatalog18Shared1.java"));
+        final File file2 = new File(getPath("misc/InputPropertyCatalog18Shared2.java"));
+
+        final Checker checker = createChecker(checkConfig);
+        try {
+            Assert.assertEquals(2, checker.process(Arrays.asList(file1, file2)));
+            Assert.assertEquals(2, checker.process(Arrays.asList(file2, file1)));
+        }
+        finally {
+            checker.destroy();
+        }
+
+        // each audit reports both references, regardless of the order in which the files are analyzed
+        final String output = new String(mBAOS.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertEquals(output, 2, countLines(output, file1.getPath() + ":6: Catalog entry 'KEY0' refers to the "
+                + "same property as 'OTHER0' in catalog 'com.foo.InputPropertyCatalog18Shared2'"));
+        Assert.assertEquals(output, 2, countLines(output, file2.getPath() + ":8: Catalog entry 'OTHER0' refers to "
+                + "the same property as 'KEY0' in catalog 'com.foo.InputPropertyCatalog18Shared1'"));
+    }
+
+
+
+    private static int countLines(final String pOutput, final String pFragment)
+    {
+        int result = 0;
+        for (final String line : pOutput.split("\\r?\\n")) {
+            if (line.contains(pFragment)) {
+                result++;
+            }
+        }
+        return result;
+    }
+}
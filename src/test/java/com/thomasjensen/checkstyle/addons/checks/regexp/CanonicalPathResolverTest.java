@@ -0,0 +1,122 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link CanonicalPathResolver}.
+ */
+public class CanonicalPathResolverTest
+{
+    @Test
+    public void testSameAsFileSystem()
+        throws IOException
+    {
+        final File dir = Files.createTempDirectory("addons-test-").toFile();
+        dir.deleteOnExit();
+        final File file = new File(new File(dir, "."), "File.java");
+        final CanonicalPathResolver underTest = new CanonicalPathResolver();
+
+        Assert.assertEquals(file.getCanonicalPath(), underTest.getCanonicalPath(file));
+        Assert.assertEquals(dir.getCanonicalPath(), underTest.getCanonicalPath(new File(dir, "sub/..")));
+        Assert.assertEquals(new File(dir.getCanonicalFile(), "Other.java").getPath(),
+            underTest.getCanonicalPath(new File(dir, "Other.java")));
+    }
+
+
+
+    @Test
+    public void testDirectoriesMemoized()
+        throws IOException
+    {
+        final File dir = Files.createTempDirectory("addons-test-").toFile().getCanonicalFile();
+        final File real1 = new File(dir, "real1");
+        final File real2 = new File(dir, "real2");
+        Assert.assertTrue(real1.mkdir());
+        Assert.assertTrue(real2.mkdir());
+        final File[] files = {new File(real1, "A.java"), new File(real1, "B.java"), new File(real2, "B.java")};
+        for (final File file : files) {
+            Assert.assertTrue(file.createNewFile());
+        }
+        final File link = new File(dir, "link");
+        Files.createSymbolicLink(link.toPath(), real1.toPath());
+        final CanonicalPathResolver underTest = new CanonicalPathResolver();
+        Assert.assertEquals(files[0].getPath(), underTest.getCanonicalPath(new File(link, "A.java")));
+
+        // The directory is not resolved again until the resolver is cleared.
+        Files.delete(link.toPath());
+        Files.createSymbolicLink(link.toPath(), real2.toPath());
+        Assert.assertEquals(files[1].getPath(), underTest.getCanonicalPath(new File(link, "B.java")));
+        underTest.clear();
+        Assert.assertEquals(files[2].getPath(), underTest.getCanonicalPath(new File(link, "B.java")));
+
+        Files.delete(link.toPath());
+        for (final File file : files) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(real1.toPath());
+        Files.delete(real2.toPath());
+        Files.delete(dir.toPath());
+    }
+
+
+
+    @Test
+    public void testFileLinksResolved()
+        throws IOException
+    {
+        final File dir = Files.createTempDirectory("addons-test-").toFile().getCanonicalFile();
+        final File real = new File(dir, "Real.java");
+        Assert.assertTrue(real.createNewFile());
+        final File link = new File(dir, "Link.java");
+        Files.createSymbolicLink(link.toPath(), real.toPath());
+
+        final CanonicalPathResolver underTest = new CanonicalPathResolver();
+        Assert.assertEquals(real.getPath(), underTest.getCanonicalPath(real));
+        Assert.assertEquals(real.getPath(), underTest.getCanonicalPath(link));
+
+        Files.delete(link.toPath());
+        Files.delete(real.toPath());
+        Files.delete(dir.toPath());
+    }
+
+
+
+    @Test
+    public void testNameNotListedResolvedByFileSystem()
+        throws IOException
+    {
+        final File dir = Files.createTempDirectory("addons-test-").toFile().getCanonicalFile();
+        final File real = new File(dir, "Real.java");
+        Assert.assertTrue(real.createNewFile());
+
+        // Whatever the file system makes of a name which differs in case, the resolver must agree.
+        final CanonicalPathResolver underTest = new CanonicalPathResolver();
+        Assert.assertEquals(real.getPath(), underTest.getCanonicalPath(real));
+        final File otherCase = new File(dir, "REAL.java");
+        Assert.assertEquals(otherCase.getCanonicalPath(), underTest.getCanonicalPath(otherCase));
+
+        Files.delete(real.toPath());
+        Files.delete(dir.toPath());
+    }
+}
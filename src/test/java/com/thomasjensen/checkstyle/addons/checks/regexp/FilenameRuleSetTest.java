@@ -0,0 +1,157 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link FilenameRuleSet}.
+ */
+public class FilenameRuleSetTest
+{
+    private static final class CollectingReporter
+        implements FilenameRuleSet.Reporter
+    {
+        private final List<String> violations = new ArrayList<>();
+
+
+
+        @Override
+        public void report(@Nonnull final FilenameRuleSet.Rule pRule, @Nonnull final String pFilePath)
+        {
+            violations.add(pRule.getName() + ": " + pFilePath);
+        }
+    }
+
+
+
+    @Test
+    public void testParse()
+    {
+        final List<FilenameRuleSet.Rule> rules = FilenameRuleSet.parse("# comment\n"
+            + "gif.selection = (?i)\\.gif$\r\n"
+            + "gif.regexp = .\n\n"
+            + "java.regexp = [\\\\/]src[\\\\/]main[\\\\/]java[\\\\/]\n"
+            + "gif.message = ''{0}'' must be PNG\n"
+            + "java.mode = Required\n"
+            + "java.simple = false");
+        Assert.assertEquals(2, rules.size());
+
+        final FilenameRuleSet.Rule gif = rules.get(0);
+        Assert.assertEquals("gif", gif.getName());
+        Assert.assertEquals("(?i)\\.gif$", gif.getSelection().pattern());
+        Assert.assertEquals(RegexpOnFilenameOrgOption.ILLEGAL, gif.getMode());
+        Assert.assertTrue(gif.isSimple());
+        Assert.assertEquals(FilenameRuleSet.MSG_CUSTOM, gif.getMessageKey());
+        Assert.assertArrayEquals(new Object[]{"'a.GIF' must be PNG"}, gif.getMessageArgs("a.GIF"));
+
+        final FilenameRuleSet.Rule java = rules.get(1);
+        Assert.assertNull(java.getSelection());
+        Assert.assertEquals(RegexpOnFilenameOrgOption.REQUIRED, java.getMode());
+        Assert.assertFalse(java.isSimple());
+        Assert.assertEquals("regexp.filepath.required", java.getMessageKey());
+        Assert.assertNull(java.getMessage());
+    }
+
+
+
+    @Test
+    public void testParseQuotedValues()
+    {
+        final List<FilenameRuleSet.Rule> rules = FilenameRuleSet.parse(""
+            + "trailing.regexp = \" $\"  \n"
+            + "trailing.message = \"Trailing blank: {0} \"\n"
+            + "quoted.regexp = \"\"x\"\"\n"
+            + "plain.regexp =   \\s$   ");
+        Assert.assertEquals(3, rules.size());
+        Assert.assertEquals(" $", rules.get(0).getRegexp().pattern());
+        Assert.assertEquals("Trailing blank: {0} ", rules.get(0).getMessage());
+        Assert.assertEquals("\"x\"", rules.get(1).getRegexp().pattern());
+        Assert.assertEquals("\\s$", rules.get(2).getRegexp().pattern());
+
+        Assert.assertEquals("\"", FilenameRuleSet.parseValue(" \" "));
+        Assert.assertEquals("", FilenameRuleSet.parseValue("\"\""));
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingRegexp()
+    {
+        FilenameRuleSet.parse("a.selection = foo");
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownAttribute()
+    {
+        FilenameRuleSet.parse("a.regexp = foo\na.selektion = bar");
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseDuplicate()
+    {
+        FilenameRuleSet.parse("a.regexp = foo\na.regexp = bar");
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseWithoutAttribute()
+    {
+        FilenameRuleSet.parse("a = foo");
+    }
+
+
+
+    @Test
+    public void testApply()
+        throws IOException
+    {
+        final FilenameRuleSet underTest = new FilenameRuleSet(FilenameRuleSet.parse(""
+            + "nogif.selection = \\.gif$\n"
+            + "nogif.regexp = .\n"
+            + "lower.selection = \\.gif$\n"
+            + "lower.regexp = ^[a-z.]+$\n"
+            + "lower.mode = required\n"
+            + "nospace.regexp = \\s\n"
+            + "res.selection = \\.properties$\n"
+            + "res.regexp = resources\n"
+            + "res.mode = required\n"
+            + "res.simple = false"));
+        final CanonicalPathResolver resolver = new CanonicalPathResolver();
+        final File dir = new File("target", "src").getCanonicalFile();
+
+        final CollectingReporter reporter = new CollectingReporter();
+        Assert.assertEquals(2, underTest.apply(new File(dir, "Image.gif"), resolver, reporter));
+        Assert.assertEquals(0, underTest.apply(new File(dir, "Main.java"), resolver, reporter));
+        Assert.assertEquals(2, underTest.apply(new File(dir, "my file.properties"), resolver, reporter));
+        Assert.assertEquals(Arrays.asList("nogif: Image.gif", "lower: Image.gif", "nospace: my file.properties",
+            "res: " + new File(dir, "my file.properties").getPath()), reporter.violations);
+    }
+}
@@ -0,0 +1,110 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link LiteralPrefilter}.
+ */
+public class LiteralPrefilterTest
+{
+    private static LiteralPrefilter prefilter(final String pRegexp)
+    {
+        return LiteralPrefilter.forPattern(Pattern.compile(pRegexp));
+    }
+
+
+
+    @Test
+    public void testLiteralsExtracted()
+    {
+        Assert.assertEquals(Arrays.asList("jdbc:"), prefilter("^jdbc:").getLiterals());
+        Assert.assertEquals(Arrays.asList("http://", ".com"), prefilter("http://[a-z]+\\.com").getLiterals());
+        Assert.assertEquals(Arrays.asList("SELECT ", " FROM"), prefilter("SELECT .* FROM").getLiterals());
+        Assert.assertEquals(Arrays.asList("a.b", "xy"), prefilter("\\Qa.b\\E\\d+xyz?").getLiterals());
+        Assert.assertEquals(Arrays.asList("foo", "bar"), prefilter("foo(?:x|y)+bar").getLiterals());
+        Assert.assertEquals(Arrays.asList("foo"), prefilter("foo[)|]").getLiterals());
+    }
+
+
+
+    @Test
+    public void testNoLiterals()
+    {
+        Assert.assertSame(LiteralPrefilter.NONE, prefilter("foo|bar"));
+        Assert.assertSame(LiteralPrefilter.NONE, prefilter("x(?i)foo"));
+        Assert.assertSame(LiteralPrefilter.NONE, prefilter("(a)\\1"));
+        Assert.assertSame(LiteralPrefilter.NONE, prefilter("\\x41BC"));
+        Assert.assertSame(LiteralPrefilter.NONE, prefilter("^(?:\\s+.*|.*?\\s+)$"));
+        Assert.assertSame(LiteralPrefilter.NONE, LiteralPrefilter.forPattern(Pattern.compile("foo",
+            Pattern.CASE_INSENSITIVE)));
+        Assert.assertEquals(Collections.emptyList(), LiteralPrefilter.NONE.getLiterals());
+        Assert.assertTrue(LiteralPrefilter.NONE.mayMatch(""));
+    }
+
+
+
+    @Test
+    public void testScopedFlags()
+    {
+        Assert.assertEquals(Arrays.asList("bar"), prefilter("(?i:foo)bar").getLiterals());
+        Assert.assertEquals(Arrays.asList("bar"), prefilter("(?:(?i)foo)bar").getLiterals());
+    }
+
+
+
+    @Test
+    public void testMayMatch()
+    {
+        final LiteralPrefilter underTest = prefilter("SELECT .* FROM");
+        Assert.assertTrue(underTest.mayMatch("SELECT * FROM table"));
+        Assert.assertTrue(underTest.mayMatch("x FROM y SELECT "));
+        Assert.assertFalse(underTest.mayMatch("SELECT *"));
+        Assert.assertFalse(underTest.mayMatch("select * from table"));
+    }
+
+
+
+    @Test
+    public void testLiteralFlag()
+    {
+        final LiteralPrefilter underTest = LiteralPrefilter.forPattern(Pattern.compile("a.b", Pattern.LITERAL));
+        Assert.assertEquals(Arrays.asList("a.b"), underTest.getLiterals());
+        Assert.assertEquals(Arrays.asList("a b"), LiteralPrefilter.forPattern(Pattern.compile("a b",
+            Pattern.LITERAL | Pattern.COMMENTS)).getLiterals());
+    }
+
+
+
+    @Test
+    public void testLiteralFlagCaseInsensitive()
+    {
+        final Pattern pattern = Pattern.compile("ABC", Pattern.LITERAL | Pattern.CASE_INSENSITIVE);
+        Assert.assertTrue(pattern.matcher("abc").find());
+        final LiteralPrefilter underTest = LiteralPrefilter.forPattern(pattern);
+        Assert.assertSame(LiteralPrefilter.NONE, underTest);
+        Assert.assertTrue(underTest.mayMatch("abc"));
+        Assert.assertSame(LiteralPrefilter.NONE, LiteralPrefilter.forPattern(Pattern.compile("A\u030a",
+            Pattern.LITERAL | Pattern.CANON_EQ)));
+    }
+}
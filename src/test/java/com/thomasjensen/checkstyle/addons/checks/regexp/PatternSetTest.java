@@ -0,0 +1,126 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests of {@link PatternSet}.
+ */
+public class PatternSetTest
+{
+    private static List<String> names(final List<PatternSet.NamedPattern> pPatterns)
+    {
+        final List<String> result = new ArrayList<>();
+        for (final PatternSet.NamedPattern pattern : pPatterns) {
+            result.add(pattern.getName());
+        }
+        return result;
+    }
+
+
+
+    @Test
+    public void testParse()
+    {
+        final List<PatternSet.NamedPattern> patterns = PatternSet.parse(
+            "# comment\n  host = (?:localhost|\\.mydomain\\.com) \r\n\nhost.message = Hostname in \"{0}\"\rjdbc=jdbc:");
+        Assert.assertEquals(Arrays.asList("host", "jdbc"), names(patterns));
+        Assert.assertEquals("(?:localhost|\\.mydomain\\.com)", patterns.get(0).getPattern().pattern());
+        Assert.assertEquals("Hostname in \"{0}\"", patterns.get(0).getMessage());
+        Assert.assertEquals("jdbc:", patterns.get(1).getPattern().pattern());
+        Assert.assertNull(patterns.get(1).getMessage());
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingEquals()
+    {
+        PatternSet.parse("host localhost");
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseDuplicate()
+    {
+        PatternSet.parse("host = localhost\nhost = 127\\.0\\.0\\.1");
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMessageWithoutPattern()
+    {
+        PatternSet.parse("host = localhost\nhots.message = typo");
+    }
+
+
+
+    @Test
+    public void testIsCombinable()
+    {
+        Assert.assertTrue(PatternSet.isCombinable("(?i)(a|b)+c\\d"));
+        Assert.assertTrue(PatternSet.isCombinable("(?<=a)b(?<!c)"));
+        Assert.assertTrue(PatternSet.isCombinable("\\Q\\1\\E"));
+        Assert.assertTrue(PatternSet.isCombinable("\\\\1"));
+        Assert.assertFalse(PatternSet.isCombinable("(a)\\1"));
+        Assert.assertFalse(PatternSet.isCombinable("(?<n>a)\\k<n>"));
+        Assert.assertFalse(PatternSet.isCombinable("(?x) a # comment"));
+        Assert.assertFalse(PatternSet.isCombinable("\\Qunterminated"));
+    }
+
+
+
+    @Test
+    public void testAllMatchesReported()
+    {
+        final PatternSet underTest = new PatternSet(PatternSet.parse("long = abc\nshort = ab\nother = xyz\n"
+            + "caseless = (?i)ABC\nbackref = (b)\\1"));
+
+        Assert.assertEquals(Arrays.asList("long", "short", "caseless"), names(underTest.findMatches("-abc-")));
+        Assert.assertEquals(Arrays.asList("short", "other"), names(underTest.findMatches("xyz ab")));
+        Assert.assertEquals(Arrays.asList("short", "backref"), names(underTest.findMatches("abb")));
+        Assert.assertEquals(Arrays.asList("backref"), names(underTest.findMatches("bb")));
+        Assert.assertTrue(underTest.findMatches("nothing here").isEmpty());
+    }
+
+
+
+    @Test
+    public void testInlineFlagsScoped()
+    {
+        final PatternSet underTest = new PatternSet(PatternSet.parse("caseless = (?i)foo\ncased = BAR"));
+        Assert.assertEquals(Arrays.asList("caseless"), names(underTest.findMatches("FOO bar")));
+        Assert.assertEquals(Arrays.asList("cased"), names(underTest.findMatches("BAR")));
+    }
+
+
+
+    @Test
+    public void testDuplicateGroupNamesNotCombined()
+    {
+        final PatternSet underTest = new PatternSet(PatternSet.parse("one = (?<x>a)\ntwo = (?<x>b)"));
+        Assert.assertEquals(Arrays.asList("one", "two"), names(underTest.findMatches("ab")));
+    }
+}
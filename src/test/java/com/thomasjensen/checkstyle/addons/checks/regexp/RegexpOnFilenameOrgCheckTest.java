@@ -360,6 +360,39 @@ public class RegexpOnFilenameOrgCheckTest
 
 
 
+    @Test
+    public void testRules()
+        throws Exception
+    {
+        final String filepath = getPath(SIMPLE_FILENAME);
+        Helpers.addConfigProperty(mCheckConfig, "regexp", "ignored");
+        Helpers.addConfigProperty(mCheckConfig, "rules", "# file name rules\n"
+            + "prefix.selection = \\." + REAL_EXT + "$\n"
+            + "prefix.regexp = ^Input\n"
+            + "prefix.message = ''{0}'' violates rule {2}.\n"
+            + "name.regexp = Filename\\.\n"
+            + "name.mode = required\n"
+            + "java.regexp = \\.java$\n"
+            + "java.mode = required\n"
+            + "other.selection = \\.java$\n"
+            + "other.regexp = .");
+        final String[] expected = {
+            "1: '" + SIMPLE_FILENAME + "' violates rule prefix.",
+            "1: Filename '" + SIMPLE_FILENAME + "' does not contain required pattern '\\.java$'."
+        };
+        verify(mCheckConfig, filepath, expected);
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRulesWithoutRegexp()
+    {
+        new RegexpOnFilenameOrgCheck().setRules("a.selection = foo");
+    }
+
+
+
     @Test
     public void testNullEmptyRegexParams_Ok()
     {
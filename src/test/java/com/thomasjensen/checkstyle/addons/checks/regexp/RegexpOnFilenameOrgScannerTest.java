@@ -0,0 +1,225 @@
+package com.thomasjensen.checkstyle.addons.checks.regexp;
+/*
+ * Checkstyle-Addons - Additional Checkstyle checks
+ * Copyright (c) 2015-2024, the Checkstyle Addons contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License, version 3, as published by the Free
+ * Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.thomasjensen.checkstyle.addons.util.AbstractPathScanner;
+
+
+/**
+ * Unit tests of {@link RegexpOnFilenameOrgScanner}.
+ */
+public final class RegexpOnFilenameOrgScannerTest
+{
+    private static final String RULES = "nogif.selection = (?i)\\.gif$\n"
+        + "nogif.regexp = .\n"
+        + "nogif.message = ''{0}'' must be in PNG format, not GIF.\n"
+        + "spaces.regexp = ^(?:\\s+.*|.*?\\s+)$";
+
+
+
+    private static final class CollectingListener
+        implements AbstractPathScanner.ViolationListener
+    {
+        private final RegexpOnFilenameOrgScanner scanner;
+
+        private final Set<String> violations = new HashSet<>();
+
+
+
+        CollectingListener(final RegexpOnFilenameOrgScanner pScanner)
+        {
+            scanner = pScanner;
+        }
+
+
+
+        @Override
+        public void violation(final File pFile, final String pMessageKey, final Object[] pArgs)
+        {
+            violations.add(pFile.getName() + " " + scanner.formatMessage(pMessageKey, pArgs));
+        }
+    }
+
+
+
+    private static RegexpOnFilenameOrgScanner createScanner(final String pRules)
+    {
+        final RegexpOnFilenameOrgScanner result = new RegexpOnFilenameOrgScanner();
+        result.setRules(pRules);
+        return result;
+    }
+
+
+
+    private static File createFile(final File pDir, final String pName)
+        throws IOException
+    {
+        final File result = new File(pDir, pName);
+        Assert.assertTrue(result.getParentFile().isDirectory() || result.getParentFile().mkdirs());
+        Files.write(result.toPath(), new byte[]{0x47, 0x49, 0x46});
+        result.deleteOnExit();
+        result.getParentFile().deleteOnExit();
+        return result;
+    }
+
+
+
+    @Test
+    public void testWalk()
+        throws IOException
+    {
+        final File dir = Files.createTempDirectory("addons-test-").toFile();
+        dir.deleteOnExit();
+        createFile(dir, "ok.png");
+        createFile(dir, "img/logo.GIF");
+        createFile(dir, "img/ leading.png");
+        final RegexpOnFilenameOrgScanner underTest = createScanner(RULES);
+        final CollectingListener listener = new CollectingListener(underTest);
+
+        final int count = underTest.walk(dir, listener);
+
+        final Set<String> expected = new HashSet<>(Arrays.asList(
+            "logo.GIF 'logo.GIF' must be in PNG format, not GIF.",
+            " leading.png Filename ' leading.png' contains illegal pattern '^(?:\\s+.*|.*?\\s+)$'."));
+        Assert.assertEquals(expected, listener.violations);
+        Assert.assertEquals(2, count);
+    }
+
+
+
+    @Test
+    public void testScanNonExistingFiles()
+    {
+        final RegexpOnFilenameOrgScanner underTest = createScanner(RULES);
+        final CollectingListener listener = new CollectingListener(underTest);
+
+        final int count = underTest.scan(Arrays.asList(
+            new File("src/main/resources/Image.gif"), new File("src/main/resources/Image.png")), listener);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Image.gif 'Image.gif' must be in PNG format, not GIF.")),
+            listener.violations);
+        Assert.assertEquals(1, count);
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRules()
+    {
+        createScanner("nogif.selection = \\.gif$");
+    }
+
+
+
+    @Test
+    public void testPlainProperties()
+    {
+        final RegexpOnFilenameOrgScanner underTest = new RegexpOnFilenameOrgScanner();
+        underTest.configure("# like the check's properties\n"
+            + "selection = [\\\\/]resources[\\\\/]\n"
+            + "regexp = ^[a-z.]+$\n"
+            + "mode = required\n"
+            + "fileExtensions = png, .gif\n");
+        final CollectingListener listener = new CollectingListener(underTest);
+
+        final int count = underTest.scan(Arrays.asList(
+            new File("src/main/resources/Image.gif"), new File("src/main/resources/image.png"),
+            new File("src/main/resources/Image.txt"), new File("src/main/java/Image.png")), listener);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(
+            "Image.gif Filename 'Image.gif' does not contain required pattern '^[a-z.]+$'.")), listener.violations);
+        Assert.assertEquals(1, count);
+    }
+
+
+
+    @Test
+    public void testDefaultProperties()
+    {
+        final RegexpOnFilenameOrgScanner underTest = new RegexpOnFilenameOrgScanner();
+        final CollectingListener listener = new CollectingListener(underTest);
+
+        final int count = underTest.scan(Arrays.asList(new File("ok.txt"), new File("not ok.txt ")), listener);
+
+        Assert.assertEquals(1, count);
+        Assert.assertEquals(1, listener.violations.size());
+    }
+
+
+
+    @Test
+    public void testConfigureRules()
+    {
+        final RegexpOnFilenameOrgScanner underTest = new RegexpOnFilenameOrgScanner();
+        underTest.configure(RULES + "\nfileExtensions = gif");
+        final CollectingListener listener = new CollectingListener(underTest);
+
+        final int count = underTest.scan(Arrays.asList(new File("a.gif"), new File(" b.png")), listener);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a.gif 'a.gif' must be in PNG format, not GIF.")),
+            listener.violations);
+        Assert.assertEquals(1, count);
+    }
+
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProperty()
+    {
+        new RegexpOnFilenameOrgScanner().configure("selektion = foo");
+    }
+
+
+
+    @Test
+    public void testScanFileList()
+        throws IOException
+    {
+        final RegexpOnFilenameOrgScanner underTest = createScanner(RULES);
+        final CollectingListener listener = new CollectingListener(underTest);
+
+        final int count = underTest.scan(new BufferedReader(new StringReader(
+            "src/main/resources/Image.gif\n\n  src/main/resources/Image.png\nlogo.GIF\n")), listener);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Image.gif 'Image.gif' must be in PNG format, not GIF.",
+            "logo.GIF 'logo.GIF' must be in PNG format, not GIF.")), listener.violations);
+        Assert.assertEquals(2, count);
+    }
+
+
+
+    @Test
+    public void testFormatViolation()
+    {
+        final File file = new File("a b.txt");
+        Assert.assertEquals("[ERROR] " + file.getAbsolutePath() + ":1: Filename 'a b.txt' does not contain required "
+                + "pattern '^\\S+$'. [RegexpOnFilenameOrg]",
+            new RegexpOnFilenameOrgScanner().formatViolation(file, "regexp.filepath.required",
+                new Object[]{"a b.txt", "^\\S+$"}));
+    }
+}
@@ -182,4 +182,26 @@ public class RegexpOnStringCheckTest
         };
         verify(checkConfig, getPath("regexp/InputRegexpOnString.java"), expected);
     }
+
+
+
+    @Test
+    public void testNamedPatterns()
+        throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(RegexpOnStringCheck.class);
+        Helpers.addConfigProperty(checkConfig, "regexp", "^literal1$");
+        Helpers.addConfigProperty(checkConfig, "patterns", "# illegal strings\n"
+            + "zzz = zzz\n"
+            + "zzz.message = String \"{0}\" violates rule ''{2}''.\n"
+            + "literal = ^literal[13]$");
+
+        final String[] expected = {//
+            "14:35: String \"literal1\" matches illegal pattern '^literal1$'.", //
+            "14:35: String \"literal1\" matches illegal pattern 'literal': '^literal[13]$'.", //
+            "68:25: String \"aaazzz\" violates rule 'zzz'.", //
+            "79:26: String \"literal3\" matches illegal pattern 'literal': '^literal[13]$'.", //
+        };
+        verify(checkConfig, getPath("regexp/InputRegexpOnString.java"), expected);
+    }
 }
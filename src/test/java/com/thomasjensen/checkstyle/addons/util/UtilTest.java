@@ -166,4 +166,29 @@ public class UtilTest
         Assert.assertFalse(Util.stringEquals("FOO", "foo", true));
         Assert.assertTrue(Util.stringEquals("FOO", "foo", false));
     }
+
+
+
+    @Test
+    public void testFoldCaseLikeCaseInsensitiveOrder()
+    {
+        final String[] samples = {"key", "KEY", "Key", "kEy.ONE", "key.one", "\u00dfe", "SSE", "\u0130i", "I\u0131",
+            "\u017f", "s", "S", "\u212a", "k", "\u00c4\u00d6\u00dc", "\u00e4\u00f6\u00fc", "", "k\u00e9y", "K\u00c9Y"};
+        for (final String s1 : samples) {
+            for (final String s2 : samples) {
+                final boolean expected = String.CASE_INSENSITIVE_ORDER.compare(s1, s2) == 0;
+                Assert.assertEquals("'" + s1 + "' vs. '" + s2 + "'", expected,
+                    Util.foldCase(s1).equals(Util.foldCase(s2)));
+            }
+        }
+    }
+
+
+
+    @Test
+    public void testFoldCaseUnchanged()
+    {
+        final String key = "already.folded.key";
+        Assert.assertSame(key, Util.foldCase(key));
+    }
 }
@@ -203,6 +203,12 @@ public final class InputLocationReference
     private static final String CONSTANT1 = Inner5.checkedCall15(InputLocationReference.class);
     private static final String CONSTANT2 = Inner5.checkedCall15(String.class);
 
+    private static final class Inner6 {
+        private static final String CONSTANT3 = checkedCall16(String.class);   // no qualifier
+        private static final String CONSTANT4 = Inner6.checkedCall16(String.class);
+        public static String checkedCall16(Object pObj) { return null; }
+    }
+
 
     /*
      * The called methods for the test methods above; required for compilation.
@@ -0,0 +1,9 @@
+package com.foo;
+
+// @formatter:off
+public class InputPropertyCatalog18Shared1
+{
+    public static final int KEY0 = 0;
+
+    public static final int KEY2 = 2;
+}
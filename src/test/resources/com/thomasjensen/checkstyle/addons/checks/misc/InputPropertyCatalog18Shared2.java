@@ -0,0 +1,9 @@
+package com.foo;
+
+// @formatter:off
+public class InputPropertyCatalog18Shared2
+{
+    public static final int KEY1 = 1;
+
+    public static final int OTHER0 = 0;
+}